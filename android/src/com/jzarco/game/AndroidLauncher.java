@@ -7,10 +7,20 @@ import com.badlogic.gdx.backends.android.AndroidApplicationConfiguration;
 import com.jzarco.game.FlappyDemo;
 
 public class AndroidLauncher extends AndroidApplication {
+
+	/* Intent extra fixing the render scale, like -Dflappy.renderScale on desktop:
+	adb shell am start -n com.jzarco.game/.AndroidLauncher --ef flappy.renderScale 0.75 */
+	public static final String RENDER_SCALE = "flappy.renderScale";
+
 	@Override
 	protected void onCreate (Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		AndroidApplicationConfiguration config = new AndroidApplicationConfiguration();
-		initialize(new FlappyDemo(), config);
+
+		GameConfig game = new GameConfig();
+		/* Render scale, lowered on slow phones unless the intent fixes it. */
+		game.renderScale = getIntent().getFloatExtra(RENDER_SCALE, GameConfig.AUTO);
+
+		initialize(new FlappyDemo(game), config);
 	}
 }
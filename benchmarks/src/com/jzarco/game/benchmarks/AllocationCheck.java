@@ -0,0 +1,170 @@
+package com.jzarco.game.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.audio.AudioBank;
+import com.jzarco.game.sim.Simulation;
+import com.jzarco.game.states.GameStateManager;
+import com.jzarco.game.states.MenuState;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that a frame allocates nothing once the game is warmed up.
+ * Runs headless for many frames each: the MenuState, a PlayState
+ * tapped now and then so the Bird flaps, dies and restarts, the same
+ * with a PauseState pushed and popped, and a PlayState in crowd mode,
+ * and compares the bytes allocated by this thread before and after.
+ *
+ * Every round after the warm-up must allocate nothing. The warm-up
+ * runs every path of the measured frames, and the crowd mode until its
+ * crowd is full, which is when it stops growing. Run it on the C1
+ * compiler only, with -XX:TieredStopAtLevel=1: its code allocates
+ * every object the source does, like a phone without escape analysis
+ * would, while C2 allocates a few bytes on this thread while it swaps
+ * compiled code in.
+ *
+ * Exits with status 1 if anything was allocated, so the build fails.
+ * Run with ./gradlew benchmarks:checkAllocations.
+ */
+public final class AllocationCheck {
+
+    /* Frames run before measuring, to load and warm up everything. */
+    private static final int WARM_UP_FRAMES = 20000;
+    /* Frames run before measuring the crowd mode, enough games for the
+    runs to fill the crowd. */
+    private static final int CROWD_WARM_UP_FRAMES = 200000;
+    /* Frames measured per round. */
+    private static final int FRAMES = 100000;
+    /* Measures per phase. */
+    private static final int ROUNDS = 5;
+    /* Frames between two taps while playing. */
+    private static final int TAP_INTERVAL = 23;
+    /* Frames between two pauses, the next tap resumes the game. */
+    private static final int PAUSE_INTERVAL = 97;
+
+    /**
+     * Class to represent an input that is touched, or has a key
+     * pressed, only when asked.
+     */
+    private static class ScriptedInput extends MockInput {
+        /* Whether the next frame sees a tap. */
+        private boolean tap;
+        /* Key the next frame sees pressed, or -1. */
+        private int key = -1;
+
+        @Override
+        public boolean justTouched () {
+            boolean touched = tap;
+            tap = false;
+            return touched;
+        }
+
+        @Override
+        public boolean isKeyJustPressed (int key) {
+            boolean pressed = key == this.key;
+            if (pressed) {
+                this.key = -1;
+            }
+            return pressed;
+        }
+    }
+
+    private AllocationCheck () {
+    }
+
+    public static void main (String[] args) {
+        HeadlessGame.start();
+        ScriptedInput input = new ScriptedInput();
+        Gdx.input = input;
+
+        AssetCache assets = new AssetCache();
+        AudioBank audio = new AudioBank(assets);
+        GameStateManager gsm = new GameStateManager(assets, audio);
+        SpriteBatch batch = new SpriteBatch();
+        gsm.push(new MenuState(gsm));
+
+        int failures = 0;
+        failures += measure("MenuState", gsm, batch, input, 0, 0, WARM_UP_FRAMES);
+        // Tap the play button.
+        input.tap = true;
+        failures += measure("PlayState", gsm, batch, input, TAP_INTERVAL, 0, WARM_UP_FRAMES);
+        failures += measure("PlayState with pauses", gsm, batch, input, TAP_INTERVAL, PAUSE_INTERVAL,
+                WARM_UP_FRAMES);
+        // Back to the menu, then G for the crowd mode.
+        gsm.set(new MenuState(gsm));
+        input.key = Input.Keys.G;
+        failures += measure("PlayState in crowd mode", gsm, batch, input, TAP_INTERVAL, 0,
+                CROWD_WARM_UP_FRAMES);
+
+        gsm.dispose();
+        batch.dispose();
+        audio.dispose();
+        assets.dispose();
+
+        if (failures > 0) {
+            System.err.println(failures + " rounds of frames allocate on the heap.");
+            System.exit(1);
+        }
+        // The headless main loop thread would keep the JVM alive.
+        System.exit(0);
+    }
+
+    /**
+     * Warms up and then measures the allocations of rounds of frames.
+     * @param name the name of the phase.
+     * @param gsm the game state manager.
+     * @param batch the sprite batch.
+     * @param input the input to tap with.
+     * @param tapInterval frames between two taps, 0 to never tap.
+     * @param pauseInterval frames between two pauses, 0 to never pause.
+     * @param warmUp the frames run before measuring.
+     * @return the number of rounds that allocated.
+     */
+    private static int measure (String name, GameStateManager gsm, SpriteBatch batch, ScriptedInput input,
+                                int tapInterval, int pauseInterval, int warmUp) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        frames(gsm, batch, input, tapInterval, pauseInterval, warmUp);
+        int failures = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            frames(gsm, batch, input, tapInterval, pauseInterval, FRAMES);
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            System.out.println(name + ", round " + round + ": " + allocated + " bytes allocated in "
+                    + FRAMES + " frames");
+            if (allocated > 0) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Runs frames like FlappyDemo does.
+     * @param gsm the game state manager.
+     * @param batch the sprite batch.
+     * @param input the input to tap with.
+     * @param tapInterval frames between two taps, 0 to never tap.
+     * @param pauseInterval frames between two pauses, 0 to never pause.
+     * @param count the number of frames.
+     */
+    private static void frames (GameStateManager gsm, SpriteBatch batch, ScriptedInput input,
+                                int tapInterval, int pauseInterval, int count) {
+        for (int i = 0; i < count; i++) {
+            if (tapInterval > 0 && i % tapInterval == 0) {
+                input.tap = true;
+            }
+            if (pauseInterval > 0 && i % pauseInterval == 0) {
+                input.key = Input.Keys.P;
+            }
+            gsm.update(Simulation.STEP);
+            gsm.render(batch);
+        }
+    }
+}
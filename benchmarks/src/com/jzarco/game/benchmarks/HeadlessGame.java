@@ -0,0 +1,37 @@
+package com.jzarco.game.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * Class to boot libGDX without a window or a GPU. The headless backend
+ * provides files, audio and input, and a {@link NullGL20} accepts every
+ * texture upload and draw call, so states and sprites can be built and
+ * measured on any machine.
+ */
+public final class HeadlessGame {
+
+    /* Whether the headless application was already started. */
+    private static boolean started;
+
+    private HeadlessGame () {
+    }
+
+    /**
+     * Starts the headless application and replaces GL, once per JVM.
+     */
+    public static synchronized void start () {
+        if (started) {
+            return;
+        }
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() { }, config);
+        GL20 gl = new NullGL20();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        started = true;
+    }
+}
@@ -0,0 +1,689 @@
+package com.jzarco.game.benchmarks;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Class to represent a GL20 that draws nothing. Every call returns
+ * at once without allocating, except shader and program creation and
+ * their status queries, which succeed so SpriteBatch can be built.
+ * Unlike a mocking library it records nothing, so allocation numbers
+ * measured on top of it belong to the game.
+ */
+public class NullGL20 implements GL20 {
+
+    @Override
+    public void glActiveTexture (int i0) {
+    }
+
+    @Override
+    public void glAttachShader (int i0, int i1) {
+    }
+
+    @Override
+    public void glBindAttribLocation (int i0, int i1, String s2) {
+    }
+
+    @Override
+    public void glBindBuffer (int i0, int i1) {
+    }
+
+    @Override
+    public void glBindFramebuffer (int i0, int i1) {
+    }
+
+    @Override
+    public void glBindRenderbuffer (int i0, int i1) {
+    }
+
+    @Override
+    public void glBindTexture (int i0, int i1) {
+    }
+
+    @Override
+    public void glBlendColor (float f0, float f1, float f2, float f3) {
+    }
+
+    @Override
+    public void glBlendEquation (int i0) {
+    }
+
+    @Override
+    public void glBlendEquationSeparate (int i0, int i1) {
+    }
+
+    @Override
+    public void glBlendFunc (int i0, int i1) {
+    }
+
+    @Override
+    public void glBlendFuncSeparate (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glBufferData (int i0, int i1, Buffer buffer2, int i3) {
+    }
+
+    @Override
+    public void glBufferSubData (int i0, int i1, int i2, Buffer buffer3) {
+    }
+
+    @Override
+    public int glCheckFramebufferStatus (int i0) {
+        return 0;
+    }
+
+    @Override
+    public void glClear (int i0) {
+    }
+
+    @Override
+    public void glClearColor (float f0, float f1, float f2, float f3) {
+    }
+
+    @Override
+    public void glClearDepthf (float f0) {
+    }
+
+    @Override
+    public void glClearStencil (int i0) {
+    }
+
+    @Override
+    public void glColorMask (boolean b0, boolean b1, boolean b2, boolean b3) {
+    }
+
+    @Override
+    public void glCompileShader (int i0) {
+    }
+
+    @Override
+    public void glCompressedTexImage2D (int i0, int i1, int i2, int i3, int i4, int i5, int i6, Buffer buffer7) {
+    }
+
+    @Override
+    public void glCompressedTexSubImage2D (int i0, int i1, int i2, int i3, int i4, int i5, int i6, int i7, Buffer buffer8) {
+    }
+
+    @Override
+    public void glCopyTexImage2D (int i0, int i1, int i2, int i3, int i4, int i5, int i6, int i7) {
+    }
+
+    @Override
+    public void glCopyTexSubImage2D (int i0, int i1, int i2, int i3, int i4, int i5, int i6, int i7) {
+    }
+
+    @Override
+    public int glCreateProgram () {
+        return 1;
+    }
+
+    @Override
+    public int glCreateShader (int i0) {
+        return 1;
+    }
+
+    @Override
+    public void glCullFace (int i0) {
+    }
+
+    @Override
+    public void glDeleteBuffer (int i0) {
+    }
+
+    @Override
+    public void glDeleteBuffers (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public void glDeleteFramebuffer (int i0) {
+    }
+
+    @Override
+    public void glDeleteFramebuffers (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public void glDeleteProgram (int i0) {
+    }
+
+    @Override
+    public void glDeleteRenderbuffer (int i0) {
+    }
+
+    @Override
+    public void glDeleteRenderbuffers (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public void glDeleteShader (int i0) {
+    }
+
+    @Override
+    public void glDeleteTexture (int i0) {
+    }
+
+    @Override
+    public void glDeleteTextures (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public void glDepthFunc (int i0) {
+    }
+
+    @Override
+    public void glDepthMask (boolean b0) {
+    }
+
+    @Override
+    public void glDepthRangef (float f0, float f1) {
+    }
+
+    @Override
+    public void glDetachShader (int i0, int i1) {
+    }
+
+    @Override
+    public void glDisable (int i0) {
+    }
+
+    @Override
+    public void glDisableVertexAttribArray (int i0) {
+    }
+
+    @Override
+    public void glDrawArrays (int i0, int i1, int i2) {
+    }
+
+    @Override
+    public void glDrawElements (int i0, int i1, int i2, Buffer buffer3) {
+    }
+
+    @Override
+    public void glDrawElements (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glEnable (int i0) {
+    }
+
+    @Override
+    public void glEnableVertexAttribArray (int i0) {
+    }
+
+    @Override
+    public void glFinish () {
+    }
+
+    @Override
+    public void glFlush () {
+    }
+
+    @Override
+    public void glFramebufferRenderbuffer (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glFramebufferTexture2D (int i0, int i1, int i2, int i3, int i4) {
+    }
+
+    @Override
+    public void glFrontFace (int i0) {
+    }
+
+    @Override
+    public int glGenBuffer () {
+        return 0;
+    }
+
+    @Override
+    public void glGenBuffers (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public int glGenFramebuffer () {
+        return 0;
+    }
+
+    @Override
+    public void glGenFramebuffers (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public int glGenRenderbuffer () {
+        return 0;
+    }
+
+    @Override
+    public void glGenRenderbuffers (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public int glGenTexture () {
+        return 0;
+    }
+
+    @Override
+    public void glGenTextures (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public void glGenerateMipmap (int i0) {
+    }
+
+    @Override
+    public String glGetActiveAttrib (int i0, int i1, IntBuffer intBuffer2, IntBuffer intBuffer3) {
+        return "";
+    }
+
+    @Override
+    public String glGetActiveUniform (int i0, int i1, IntBuffer intBuffer2, IntBuffer intBuffer3) {
+        return "";
+    }
+
+    @Override
+    public void glGetAttachedShaders (int i0, int i1, Buffer buffer2, IntBuffer intBuffer3) {
+    }
+
+    @Override
+    public int glGetAttribLocation (int i0, String s1) {
+        return 0;
+    }
+
+    @Override
+    public void glGetBooleanv (int i0, Buffer buffer1) {
+    }
+
+    @Override
+    public void glGetBufferParameteriv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public int glGetError () {
+        return 0;
+    }
+
+    @Override
+    public void glGetFloatv (int i0, FloatBuffer floatBuffer1) {
+    }
+
+    @Override
+    public void glGetFramebufferAttachmentParameteriv (int i0, int i1, int i2, IntBuffer intBuffer3) {
+    }
+
+    @Override
+    public void glGetIntegerv (int i0, IntBuffer intBuffer1) {
+    }
+
+    @Override
+    public String glGetProgramInfoLog (int i0) {
+        return "";
+    }
+
+    @Override
+    public void glGetProgramiv (int i0, int pname, IntBuffer params) {
+        params.put(0, pname == GL_COMPILE_STATUS || pname == GL_LINK_STATUS ? 1 : 0);
+    }
+
+    @Override
+    public void glGetRenderbufferParameteriv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public String glGetShaderInfoLog (int i0) {
+        return "";
+    }
+
+    @Override
+    public void glGetShaderPrecisionFormat (int i0, int i1, IntBuffer intBuffer2, IntBuffer intBuffer3) {
+    }
+
+    @Override
+    public void glGetShaderiv (int i0, int pname, IntBuffer params) {
+        params.put(0, pname == GL_COMPILE_STATUS || pname == GL_LINK_STATUS ? 1 : 0);
+    }
+
+    @Override
+    public String glGetString (int i0) {
+        return "";
+    }
+
+    @Override
+    public void glGetTexParameterfv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glGetTexParameteriv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public int glGetUniformLocation (int i0, String s1) {
+        return 0;
+    }
+
+    @Override
+    public void glGetUniformfv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glGetUniformiv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void glGetVertexAttribPointerv (int i0, int i1, Buffer buffer2) {
+    }
+
+    @Override
+    public void glGetVertexAttribfv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glGetVertexAttribiv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void glHint (int i0, int i1) {
+    }
+
+    @Override
+    public boolean glIsBuffer (int i0) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsEnabled (int i0) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsFramebuffer (int i0) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsProgram (int i0) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsRenderbuffer (int i0) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsShader (int i0) {
+        return false;
+    }
+
+    @Override
+    public boolean glIsTexture (int i0) {
+        return false;
+    }
+
+    @Override
+    public void glLineWidth (float f0) {
+    }
+
+    @Override
+    public void glLinkProgram (int i0) {
+    }
+
+    @Override
+    public void glPixelStorei (int i0, int i1) {
+    }
+
+    @Override
+    public void glPolygonOffset (float f0, float f1) {
+    }
+
+    @Override
+    public void glReadPixels (int i0, int i1, int i2, int i3, int i4, int i5, Buffer buffer6) {
+    }
+
+    @Override
+    public void glReleaseShaderCompiler () {
+    }
+
+    @Override
+    public void glRenderbufferStorage (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glSampleCoverage (float f0, boolean b1) {
+    }
+
+    @Override
+    public void glScissor (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glShaderBinary (int i0, IntBuffer intBuffer1, int i2, Buffer buffer3, int i4) {
+    }
+
+    @Override
+    public void glShaderSource (int i0, String s1) {
+    }
+
+    @Override
+    public void glStencilFunc (int i0, int i1, int i2) {
+    }
+
+    @Override
+    public void glStencilFuncSeparate (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glStencilMask (int i0) {
+    }
+
+    @Override
+    public void glStencilMaskSeparate (int i0, int i1) {
+    }
+
+    @Override
+    public void glStencilOp (int i0, int i1, int i2) {
+    }
+
+    @Override
+    public void glStencilOpSeparate (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glTexImage2D (int i0, int i1, int i2, int i3, int i4, int i5, int i6, int i7, Buffer buffer8) {
+    }
+
+    @Override
+    public void glTexParameterf (int i0, int i1, float f2) {
+    }
+
+    @Override
+    public void glTexParameterfv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glTexParameteri (int i0, int i1, int i2) {
+    }
+
+    @Override
+    public void glTexParameteriv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void glTexSubImage2D (int i0, int i1, int i2, int i3, int i4, int i5, int i6, int i7, Buffer buffer8) {
+    }
+
+    @Override
+    public void glUniform1f (int i0, float f1) {
+    }
+
+    @Override
+    public void glUniform1fv (int i0, int i1, float[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform1fv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glUniform1i (int i0, int i1) {
+    }
+
+    @Override
+    public void glUniform1iv (int i0, int i1, int[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform1iv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void glUniform2f (int i0, float f1, float f2) {
+    }
+
+    @Override
+    public void glUniform2fv (int i0, int i1, float[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform2fv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glUniform2i (int i0, int i1, int i2) {
+    }
+
+    @Override
+    public void glUniform2iv (int i0, int i1, int[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform2iv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void glUniform3f (int i0, float f1, float f2, float f3) {
+    }
+
+    @Override
+    public void glUniform3fv (int i0, int i1, float[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform3fv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glUniform3i (int i0, int i1, int i2, int i3) {
+    }
+
+    @Override
+    public void glUniform3iv (int i0, int i1, int[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform3iv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void glUniform4f (int i0, float f1, float f2, float f3, float f4) {
+    }
+
+    @Override
+    public void glUniform4fv (int i0, int i1, float[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform4fv (int i0, int i1, FloatBuffer floatBuffer2) {
+    }
+
+    @Override
+    public void glUniform4i (int i0, int i1, int i2, int i3, int i4) {
+    }
+
+    @Override
+    public void glUniform4iv (int i0, int i1, int[] v2, int i3) {
+    }
+
+    @Override
+    public void glUniform4iv (int i0, int pname, IntBuffer params) {
+    }
+
+    @Override
+    public void glUniformMatrix2fv (int i0, int i1, boolean b2, float[] v3, int i4) {
+    }
+
+    @Override
+    public void glUniformMatrix2fv (int i0, int i1, boolean b2, FloatBuffer floatBuffer3) {
+    }
+
+    @Override
+    public void glUniformMatrix3fv (int i0, int i1, boolean b2, float[] v3, int i4) {
+    }
+
+    @Override
+    public void glUniformMatrix3fv (int i0, int i1, boolean b2, FloatBuffer floatBuffer3) {
+    }
+
+    @Override
+    public void glUniformMatrix4fv (int i0, int i1, boolean b2, float[] v3, int i4) {
+    }
+
+    @Override
+    public void glUniformMatrix4fv (int i0, int i1, boolean b2, FloatBuffer floatBuffer3) {
+    }
+
+    @Override
+    public void glUseProgram (int i0) {
+    }
+
+    @Override
+    public void glValidateProgram (int i0) {
+    }
+
+    @Override
+    public void glVertexAttrib1f (int i0, float f1) {
+    }
+
+    @Override
+    public void glVertexAttrib1fv (int i0, FloatBuffer floatBuffer1) {
+    }
+
+    @Override
+    public void glVertexAttrib2f (int i0, float f1, float f2) {
+    }
+
+    @Override
+    public void glVertexAttrib2fv (int i0, FloatBuffer floatBuffer1) {
+    }
+
+    @Override
+    public void glVertexAttrib3f (int i0, float f1, float f2, float f3) {
+    }
+
+    @Override
+    public void glVertexAttrib3fv (int i0, FloatBuffer floatBuffer1) {
+    }
+
+    @Override
+    public void glVertexAttrib4f (int i0, float f1, float f2, float f3, float f4) {
+    }
+
+    @Override
+    public void glVertexAttrib4fv (int i0, FloatBuffer floatBuffer1) {
+    }
+
+    @Override
+    public void glVertexAttribPointer (int i0, int i1, int i2, boolean b3, int i4, Buffer buffer5) {
+    }
+
+    @Override
+    public void glVertexAttribPointer (int i0, int i1, int i2, boolean b3, int i4, int i5) {
+    }
+
+    @Override
+    public void glViewport (int i0, int i1, int i2, int i3) {
+    }
+}
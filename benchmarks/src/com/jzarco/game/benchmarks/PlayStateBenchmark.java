@@ -0,0 +1,72 @@
+package com.jzarco.game.benchmarks;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.jzarco.game.FlappyDemo;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.audio.AudioBank;
+import com.jzarco.game.sim.Simulation;
+import com.jzarco.game.states.GameStateManager;
+import com.jzarco.game.states.PlayState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a full PlayState frame, through the GameStateManager
+ * like the game does. Nobody taps, so the Bird keeps falling and the
+ * cost of restarting is part of the update. With crowd, 500 bots
+ * and up to 500 previous runs fly and are drawn as ghosts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlayStateBenchmark {
+
+    @Param({"false", "true"})
+    public boolean crowd;
+
+    private AssetCache assets;
+    private AudioBank audio;
+    private GameStateManager gsm;
+    private SpriteBatch batch;
+
+    @Setup
+    public void setup () {
+        HeadlessGame.start();
+        assets = new AssetCache();
+        audio = new AudioBank(assets);
+        gsm = new GameStateManager(assets, audio);
+        PlayState play = new PlayState(gsm);
+        play.setCrowdMode(crowd);
+        gsm.push(play);
+        batch = new SpriteBatch(FlappyDemo.BATCH_SIZE);
+    }
+
+    @TearDown
+    public void tearDown () {
+        gsm.dispose();
+        batch.dispose();
+        audio.dispose();
+        assets.dispose();
+    }
+
+    @Benchmark
+    public float update () {
+        gsm.update(Simulation.STEP);
+        return gsm.getAlpha();
+    }
+
+    @Benchmark
+    public int render () {
+        gsm.render(batch);
+        return gsm.getRenderCalls();
+    }
+}
@@ -0,0 +1,121 @@
+package com.jzarco.game.benchmarks;
+
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.audio.AudioBank;
+import com.jzarco.game.sim.BirdBody;
+import com.jzarco.game.sim.Simulation;
+import com.jzarco.game.sim.TubeBody;
+import com.jzarco.game.sprites.Animation;
+import com.jzarco.game.sprites.Bird;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the per-step work of the sprites and their bodies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpriteBenchmark {
+
+    private AssetCache assets;
+    private AudioBank audio;
+    private BirdBody birdBody;
+    private Bird bird;
+    private Animation animation;
+    private TubeBody tubeBody;
+    private float playerX;
+    private float playerY;
+    private Simulation sim;
+    private float tubeX;
+
+    @Setup
+    public void setup () {
+        HeadlessGame.start();
+        assets = new AssetCache();
+        audio = new AudioBank(assets);
+        birdBody = new BirdBody(Simulation.BIRD_X, Simulation.BIRD_Y);
+        bird = new Bird(assets, audio, birdBody);
+        animation = new Animation(assets.getAtlas(AssetCache.ATLAS).findRegion("birdanimation"), 3, 0.5f);
+        tubeBody = new TubeBody(200, 300);
+        playerX = 190;
+        playerY = 240;
+        sim = new Simulation();
+    }
+
+    @TearDown
+    public void tearDown () {
+        bird.dispose();
+        assets.release(AssetCache.ATLAS);
+        audio.dispose();
+        assets.dispose();
+    }
+
+    @Benchmark
+    public float birdStep () {
+        if (birdBody.getY() < 100) {
+            birdBody.jump();
+        }
+        birdBody.step(Simulation.STEP);
+        return birdBody.getY();
+    }
+
+    @Benchmark
+    public Object birdUpdate () {
+        bird.update(Simulation.STEP);
+        return bird.getTexture();
+    }
+
+    @Benchmark
+    public Object animationUpdate () {
+        animation.update(Simulation.STEP);
+        return animation.getFrame();
+    }
+
+    @Benchmark
+    public float tubeReposition () {
+        tubeX += TubeBody.WIDTH + Simulation.TUBE_SPACING;
+        tubeBody.reposition(tubeX, 300);
+        return tubeBody.getBotY();
+    }
+
+    @Benchmark
+    public boolean tubeCollides () {
+        return tubeBody.collides(playerX, playerY, BirdBody.WIDTH, BirdBody.HEIGHT);
+    }
+
+    @Benchmark
+    public float tubeSweep () {
+        // A frame of the Bird falling through the opening.
+        return tubeBody.sweep(playerX, playerY, playerX + BirdBody.MOVEMENT * Simulation.STEP,
+                playerY - 4, BirdBody.WIDTH, BirdBody.HEIGHT);
+    }
+
+    @Benchmark
+    public float simulationSweep () {
+        // The longest move of a step, past the first Tube.
+        return sim.sweep(Simulation.BIRD_X, Simulation.BIRD_Y,
+                Simulation.BIRD_X + BirdBody.MOVEMENT * Simulation.MAX_MOVE, Simulation.BIRD_Y,
+                BirdBody.WIDTH, BirdBody.HEIGHT);
+    }
+
+    @Benchmark
+    public int simulationStep () {
+        if (sim.isOver()) {
+            sim.reset();
+        }
+        if (sim.getBird().getY() < 150) {
+            sim.jump();
+        }
+        sim.step(Simulation.STEP);
+        return sim.getTick();
+    }
+}
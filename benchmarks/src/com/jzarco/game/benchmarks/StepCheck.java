@@ -0,0 +1,86 @@
+package com.jzarco.game.benchmarks;
+
+import com.jzarco.game.sim.BatchSimulator;
+import com.jzarco.game.sim.Policy;
+import com.jzarco.game.sim.Simulation;
+import com.jzarco.game.sim.SplitMix;
+
+/**
+ * Checks that the game rules handle steps far longer than a frame.
+ * A step of 10 seconds must return, end the game at the first impact
+ * with the score of the Tubes passed before it, and play like the
+ * same time split in moves of {@link Simulation#MAX_MOVE} seconds.
+ * The lanes of a BatchSimulator must return too.
+ *
+ * Exits with status 1 if a check fails, so the build fails.
+ * Run with ./gradlew benchmarks:checkLongSteps.
+ */
+public final class StepCheck {
+
+    /* Courses played. */
+    private static final int SEEDS = 1000;
+
+    private StepCheck () {
+    }
+
+    public static void main (String[] args) {
+        int failures = 0;
+
+        // From the start, the Bird falls to the ground before the first Tube.
+        Simulation sim = new Simulation(Simulation.TUBE_COUNT, 1);
+        sim.step(10f);
+        if (!sim.isOver() || sim.getTick() != 1 || sim.getScore() != 0) {
+            System.out.println("step(10f): over " + sim.isOver() + ", tick " + sim.getTick()
+                    + ", score " + sim.getScore() + ", expected over at tick 1 with score 0");
+            failures++;
+        }
+
+        // A long step plays like its moves, jumping before the first one.
+        Simulation moves = new Simulation(Simulation.TUBE_COUNT, 1);
+        for (int i = 0; i < SEEDS; i++) {
+            long seed = SplitMix.mix(i);
+            sim.reset(seed);
+            moves.reset(seed);
+            int steps = 0;
+            while (!sim.isOver() && steps < 100) {
+                boolean jump = sim.getBird().getY() < 200;
+                if (jump) {
+                    sim.jump();
+                    moves.jump();
+                }
+                sim.step(10f);
+                for (int m = 0; m < 8 && !moves.isOver(); m++) {
+                    moves.step(10f / 8);
+                }
+                steps++;
+            }
+            if (sim.isOver() != moves.isOver() || sim.getScore() != moves.getScore()
+                    || sim.getBird().getX() != moves.getBird().getX()
+                    || sim.getBird().getY() != moves.getBird().getY()) {
+                System.out.println("Seed " + Long.toHexString(seed) + ": step(10f) ends with score "
+                        + sim.getScore() + " at " + sim.getBird().getX() + ", moves with score "
+                        + moves.getScore() + " at " + moves.getBird().getX());
+                failures++;
+            }
+        }
+
+        // Lanes die and restart every step, without looping forever.
+        Policy flap = new Policy() {
+            @Override
+            public boolean jump (float birdY, float velocityY, float tubeDx, float gapY) {
+                return velocityY <= 0;
+            }
+        };
+        BatchSimulator.Result result = new BatchSimulator(1024, 1).run(flap, 100, 10f);
+        if (result.meanScore != 0) {
+            System.out.println("BatchSimulator at 10 s steps: mean score " + result.meanScore + ", expected 0");
+            failures++;
+        }
+
+        if (failures > 0) {
+            System.out.println(failures + " long step checks failed.");
+            System.exit(1);
+        }
+        System.out.println("Long steps: OK");
+    }
+}
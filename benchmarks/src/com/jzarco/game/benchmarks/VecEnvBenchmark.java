@@ -0,0 +1,54 @@
+package com.jzarco.game.benchmarks;
+
+import com.jzarco.game.sim.Env;
+import com.jzarco.game.sim.VecEnv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a VecEnv step, reported per environment step. Every
+ * Bird flaps below the opening of its next Tube, so games keep
+ * ending and restarting like during training.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VecEnvBenchmark {
+
+    /* Environments stepped per call. */
+    private static final int SIZE = 16384;
+
+    @Param({"1024", "16384"})
+    public int size;
+
+    private VecEnv env;
+
+    @Setup
+    public void setup () {
+        env = new VecEnv(size, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public float step () {
+        // A call of the small batch is repeated to step SIZE environments.
+        for (int n = 0; n < SIZE / size; n++) {
+            float[] observations = env.getObservations();
+            boolean[] actions = env.getActions();
+            for (int i = 0, o = 0; i < size; i++, o += Env.OBSERVATION_SIZE) {
+                actions[i] = observations[o + 1] <= 0 && observations[o] < observations[o + 3] - 70;
+            }
+            env.step();
+        }
+        return env.getRewards()[0];
+    }
+}
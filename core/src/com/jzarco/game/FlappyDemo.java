@@ -1,13 +1,18 @@
 package com.jzarco.game;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.audio.Music;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.audio.AudioBank;
+import com.jzarco.game.debug.FrameProfiler;
+import com.jzarco.game.render.ResolutionScaler;
+import com.jzarco.game.scores.Leaderboard;
 import com.jzarco.game.states.GameStateManager;
-import com.jzarco.game.states.MenuState;
+import com.jzarco.game.states.LoadingState;
 
 public class FlappyDemo extends ApplicationAdapter {
 
@@ -17,34 +22,95 @@ public class FlappyDemo extends ApplicationAdapter {
 	public static final int HEIGHT = 800;
 	/* Screen title. */
 	public static final String TITLE = "Flappy Bird";
+	/* Sprites per draw call, enough for a frame with the whole crowd. */
+	public static final int BATCH_SIZE = 2048;
+	/* Frame time the render scale adapts to without a cap, 60 frames per second. */
+	public static final float TARGET_FRAME_TIME = 1 / 60f;
+	/* Directory of the recorded runs. */
+	public static final String SCORES = "scores";
+	/* Best runs kept by the leaderboard. */
+	public static final int TOP_SCORES = 10;
+	/* Tag for the logs. */
+	private static final String TAG = "FlappyDemo";
 
+	/* Textures and sounds shared by every state. */
+	private AssetCache assets;
+	/* Sounds and music shared by every state. */
+	private AudioBank audio;
 	/* Manage game states. */
 	private GameStateManager gsm;
 	/* SpriteBatch is used to render sprites efficiently.
 	It is a very heavy file. */
 	private SpriteBatch batch;
-	/* Music of the FlappyDemo. */
-	private Music music;
+	/* Frame timings overlay, toggled with F3. */
+	private FrameProfiler profiler;
+	/* Settings of the launcher. */
+	private final GameConfig config;
+	/* Renders the states at a lower resolution when frames are slow. */
+	private ResolutionScaler scaler;
+	/* Records every finished run, handed to the states once its files
+	are loaded, or null if they can't be. */
+	private Leaderboard leaderboard;
+	/* Time the next capped frame may end at, on Android, where the
+	backend has no cap of its own. */
+	private long nextFrame;
 
 	// SpriteBatch batch;
 	// Texture img;
 
+	/**
+	 * Defines the initial state of a FlappyDemo, with the default settings.
+	 */
+	public FlappyDemo () {
+		this(new GameConfig());
+	}
+
+	/**
+	 * Defines the initial state of a FlappyDemo.
+	 * @param config the settings of the launcher.
+	 */
+	public FlappyDemo (GameConfig config) {
+		this.config = config;
+	}
+
 	/**
 	 * Creates.
 	 */
 	@Override
 	public void create () {
+		long startTime = TimeUtils.nanoTime();
 		// img = new Texture("badlogic.jpg");
-		batch = new SpriteBatch();
-		gsm = new GameStateManager();
-
-		music = Gdx.audio.newMusic(Gdx.files.internal("music.mp3"));
-		music.setLooping(true);
-		music.setVolume(0.1f);
-		music.play();
+		batch = new SpriteBatch(BATCH_SIZE);
+		assets = new AssetCache();
+		audio = new AudioBank(assets);
+		gsm = new GameStateManager(assets, audio);
+		profiler = new FrameProfiler();
+		gsm.setProfiler(profiler);
+		// The runs are loaded by the writer of the leaderboard meanwhile.
+		leaderboard = new Leaderboard(Gdx.files.local(SCORES).file(), TOP_SCORES);
+		float target = config.foregroundFps > 0 ? 1f / config.foregroundFps : TARGET_FRAME_TIME;
+		scaler = new ResolutionScaler(WIDTH / 2.0f, HEIGHT / 2.0f, config.renderScale, target);
+		scaler.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 
 		ScreenUtils.clear(1, 0, 0, 1);
-		gsm.push(new MenuState(gsm));
+		// Assets are streamed by the LoadingState, nothing is loaded here.
+		gsm.push(new LoadingState(gsm, startTime));
+	}
+
+	/**
+	 * Hands the leaderboard to the states once its runs are loaded, the
+	 * game goes on without it if the files can't be opened.
+	 */
+	private void pollLeaderboard () {
+		if (leaderboard.isLoaded()) {
+			gsm.setLeaderboard(leaderboard);
+			Gdx.app.log(TAG, "Loaded " + leaderboard.getRecordedRuns() + " runs in "
+					+ TimeUtils.nanosToMillis(leaderboard.getLoadNanos()) + " ms");
+		} else if (leaderboard.getError() != null) {
+			Gdx.app.error(TAG, "Can't load the scores, runs won't be recorded", leaderboard.getError());
+			leaderboard.dispose();
+			leaderboard = null;
+		}
 	}
 
 	/**
@@ -56,11 +122,84 @@ public class FlappyDemo extends ApplicationAdapter {
 		// batch.draw(img, 0, 0);
 		// batch.end();
 
-		// Clear color buffer before rendering new game frame.
-		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		if (leaderboard != null && gsm.getLeaderboard() == null) {
+			pollLeaderboard();
+		}
 
+		profiler.beginFrame();
+		profiler.handleInput();
 		gsm.update(Gdx.graphics.getDeltaTime());
+
+		// Plays the music as soon as it is loaded, checked after the update
+		// that loads it, which also leaves the LoadingState for the menu,
+		// that only renders again on input.
+		if (!audio.isMusicStarted() && assets.isLoaded(AssetCache.MUSIC)) {
+			audio.playMusic();
+		}
+
+		// Idle states are only rendered on input, the loop sleeps meanwhile.
+		boolean continuous = gsm.isContinuous() || profiler.isVisible();
+		if (Gdx.graphics.isContinuousRendering() != continuous) {
+			Gdx.graphics.setContinuousRendering(continuous);
+		}
+		if (continuous) {
+			scaler.update(Gdx.graphics.getDeltaTime());
+		}
+
+		// The states render offscreen, cleared before the new game frame.
+		scaler.begin();
+		ScreenUtils.clear(1, 0, 0, 1);
 		gsm.render(batch);
+		scaler.end(batch);
+
+		profiler.endFrame(gsm.getRenderCalls(), gsm.getCuller().getDrawn(), gsm.getCuller().getCulled());
+		profiler.render(batch);
+
+		// The desktop backend caps the frames itself.
+		if (continuous && config.foregroundFps > 0 && Gdx.app.getType() == Application.ApplicationType.Android) {
+			capFrame();
+		}
+	}
+
+	/**
+	 * Sleeps until the frame took its share of a second at
+	 * {@link GameConfig#foregroundFps}. A late frame doesn't shorten the
+	 * next ones.
+	 */
+	private void capFrame () {
+		long now = TimeUtils.nanoTime();
+		nextFrame = Math.max(nextFrame + 1000000000L / config.foregroundFps, now);
+		long wait = nextFrame - now;
+		if (wait <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(wait / 1000000L, (int) (wait % 1000000L));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Resizes.
+	 * @param width the new width
+	 * @param height the new height
+	 */
+	@Override
+	public void resize (int width, int height) {
+		scaler.resize(width, height);
+		profiler.resize(width, height);
+	}
+
+	/**
+	 * Pauses the game, when the window loses the focus or the app
+	 * goes to the background.
+	 */
+	@Override
+	public void pause () {
+		if (gsm != null) {
+			gsm.pause();
+		}
 	}
 
 	/**
@@ -70,7 +209,18 @@ public class FlappyDemo extends ApplicationAdapter {
 	public void dispose () {
 		// img.dispose();
 		super.dispose();
+		gsm.dispose();
 		batch.dispose();
-		music.dispose();
+		scaler.dispose();
+		audio.dispose();
+		profiler.dispose();
+		if (leaderboard != null) {
+			leaderboard.dispose();
+			if (leaderboard.getError() != null) {
+				Gdx.app.error(TAG, "Can't save the scores", leaderboard.getError());
+			}
+		}
+		assets.logStats();
+		assets.dispose();
 	}
 }
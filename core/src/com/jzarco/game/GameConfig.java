@@ -0,0 +1,24 @@
+package com.jzarco.game;
+
+/**
+ * Class to represent a GameConfig, the settings a launcher passes to
+ * {@link FlappyDemo} for the device it runs on.
+ */
+public class GameConfig {
+
+	/* Scale adapted to the frame time. */
+	public static final float AUTO = 0;
+
+	/* Fraction of the resolution of the screen the game renders at,
+	from 0.5 to 1, or AUTO to lower it when the frames are slow. */
+	public float renderScale = AUTO;
+
+	/* Frames per second while playing, or 0 for no cap beyond vsync.
+	The desktop backend caps the loop, FlappyDemo sleeps on Android. */
+	public int foregroundFps = 60;
+
+	/* Frames per second the loop wakes up at to poll input while
+	nothing renders: on the menu, paused or minimized. Desktop only,
+	Android renders on its input events and stops while minimized. */
+	public int backgroundFps = 20;
+}
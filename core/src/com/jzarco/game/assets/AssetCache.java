@@ -0,0 +1,214 @@
+package com.jzarco.game.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Class to represent an AssetCache. An AssetCache shares every
+ * texture and sound between the states and sprites that borrow it,
+ * counting references so an asset is only loaded once and only
+ * disposed when nobody uses it anymore.
+ *
+ * Assets are loaded by an {@link AssetManager}. They can be queued
+ * and streamed in the background with {@link #update(int)}, the
+ * cache keeps a reference to them until it is disposed. An asset
+ * borrowed before it is streamed is loaded right away.
+ *
+ * Every get must be paired with a {@link #release(String)}.
+ */
+public class AssetCache implements Disposable {
+
+    /* Atlas packing every sprite of the game into one texture,
+    generated by the desktop packTextures task. */
+    public static final String ATLAS = "flappy.atlas";
+    /* Background and ground, separate textures so they can repeat. */
+    public static final String BACKGROUND = "bg.png";
+    public static final String GROUND = "ground.png";
+    /* Flap sound of the Bird. */
+    public static final String FLAP = "sfx_wing.ogg";
+    /* Background music. */
+    public static final String MUSIC = "music.mp3";
+
+    /* Tag used for logging. */
+    private static final String TAG = "AssetCache";
+
+    /* Loads the assets and counts their references. */
+    private final AssetManager manager;
+    /* Number of requests served without loading. */
+    private int hits;
+    /* Number of requests that had to load the asset. */
+    private int misses;
+
+    /**
+     * Defines the initial state of an AssetCache.
+     */
+    public AssetCache () {
+        manager = new AssetManager();
+    }
+
+    /**
+     * Queues every asset of the game, to be streamed with
+     * {@link #update(int)}.
+     */
+    public void queueAll () {
+        manager.load(ATLAS, TextureAtlas.class);
+        manager.load(BACKGROUND, Texture.class);
+        manager.load(GROUND, Texture.class);
+        manager.load(FLAP, Sound.class);
+        manager.load(MUSIC, Music.class);
+    }
+
+    /**
+     * Streams the queued assets for a while.
+     * @param millis the time the GL thread can spend, at least.
+     * @return <code>true</code> if every queued asset is loaded.
+     */
+    public boolean update (int millis) {
+        return manager.update(millis);
+    }
+
+    /**
+     * Returns how much of the queued assets are loaded.
+     * @return a value from 0 to 1.
+     */
+    public float getProgress () {
+        return manager.getProgress();
+    }
+
+    /**
+     * Borrows a texture, loading it only if nobody is using it.
+     * @param fileName the internal path of the texture.
+     * @return the shared texture.
+     */
+    public Texture getTexture (String fileName) {
+        return get(fileName, Texture.class);
+    }
+
+    /**
+     * Borrows a texture atlas, loading it only if nobody is using it.
+     * @param fileName the internal path of the atlas.
+     * @return the shared texture atlas.
+     */
+    public TextureAtlas getAtlas (String fileName) {
+        return get(fileName, TextureAtlas.class);
+    }
+
+    /**
+     * Borrows a sound, decoding it only if nobody is using it.
+     * @param fileName the internal path of the sound.
+     * @return the shared sound.
+     */
+    public Sound getSound (String fileName) {
+        return get(fileName, Sound.class);
+    }
+
+    /**
+     * Borrows a music, opening it only if nobody is using it.
+     * @param fileName the internal path of the music.
+     * @return the shared music.
+     */
+    public Music getMusic (String fileName) {
+        return get(fileName, Music.class);
+    }
+
+    /**
+     * Returns whether an asset is loaded.
+     * @param fileName the internal path of the asset.
+     * @return <code>true</code> if it can be borrowed without loading.
+     */
+    public boolean isLoaded (String fileName) {
+        return manager.isLoaded(fileName);
+    }
+
+    /**
+     * Borrows an asset, loading it only if it isn't loaded yet.
+     * @param fileName the internal path of the asset.
+     * @param type the class of the asset.
+     * @param <T> the type of the asset.
+     * @return the shared asset.
+     */
+    private <T> T get (String fileName, Class<T> type) {
+        if (manager.isLoaded(fileName, type)) {
+            retain(fileName);
+            hits++;
+            return manager.get(fileName, type);
+        }
+        manager.load(fileName, type);
+        misses++;
+        return manager.finishLoadingAsset(fileName);
+    }
+
+    /**
+     * Adds a reference to a loaded asset and its dependencies, like
+     * the manager does when an asset is loaded twice, since unloading
+     * releases the dependencies every time.
+     * @param fileName the internal path of the asset.
+     */
+    private void retain (String fileName) {
+        manager.setReferenceCount(fileName, manager.getReferenceCount(fileName) + 1);
+        Array<String> dependencies = manager.getDependencies(fileName);
+        if (dependencies != null) {
+            for (int i = 0; i < dependencies.size; i++) {
+                retain(dependencies.get(i));
+            }
+        }
+    }
+
+    /**
+     * Gives back an asset. It is disposed when the last owner releases it.
+     * @param fileName the internal path of the asset.
+     */
+    public void release (String fileName) {
+        if (!manager.isLoaded(fileName)) {
+            throw new GdxRuntimeException("Asset not loaded: " + fileName);
+        }
+        manager.unload(fileName);
+    }
+
+    /**
+     * Returns the number of requests served from the cache.
+     * @return the number of requests served from the cache.
+     */
+    public int getHits () {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests that loaded from disk.
+     * @return the number of requests that loaded from disk.
+     */
+    public int getMisses () {
+        return misses;
+    }
+
+    /**
+     * Returns the number of assets currently loaded, with their
+     * dependencies like the texture of an atlas.
+     * @return the number of assets currently loaded.
+     */
+    public int getLoadedCount () {
+        return manager.getLoadedAssets();
+    }
+
+    /**
+     * Logs the hit and miss counts.
+     */
+    public void logStats () {
+        Gdx.app.log(TAG, "hits=" + hits + " misses=" + misses + " loaded=" + manager.getLoadedAssets());
+    }
+
+    /**
+     * Disposes every asset still loaded, whatever its references.
+     */
+    @Override
+    public void dispose () {
+        manager.dispose();
+    }
+}
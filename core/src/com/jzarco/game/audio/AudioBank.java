@@ -0,0 +1,131 @@
+package com.jzarco.game.audio;
+
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.jzarco.game.assets.AssetCache;
+
+/**
+ * Class to represent an AudioBank, which plays every sound of the
+ * game. Each {@link Effect} is borrowed from the {@link AssetCache}
+ * once and kept for the lifetime of the game, whoever plays it.
+ *
+ * An Effect can only play a few instances at once: when they are all
+ * taken the oldest one is stopped. Triggers closer than the minimum
+ * interval of the Effect are dropped, so rapid tapping can't fill the
+ * mixer. The bank also owns the background music.
+ */
+public class AudioBank implements Disposable {
+
+    /* Volume of the music. */
+    private static final float MUSIC_VOLUME = 0.1f;
+
+    /* Assets the sounds are borrowed from. */
+    private final AssetCache assets;
+    /* Sound of every Effect, by ordinal, borrowed on first play. */
+    private final Sound[] sounds;
+    /* Instances of every Effect, a ring per Effect starting at the oldest. */
+    private final long[][] voices;
+    /* Next instance to replace, per Effect. */
+    private final int[] nextVoice;
+    /* Time of the last trigger, per Effect, in nanoseconds. */
+    private final long[] lastPlayed;
+    /* Background music, once it is played. */
+    private Music music;
+
+    /**
+     * Defines the initial state of an AudioBank.
+     * @param assets the assets to borrow the sounds from.
+     */
+    public AudioBank (AssetCache assets) {
+        this.assets = assets;
+        Effect[] effects = Effect.values();
+        sounds = new Sound[effects.length];
+        voices = new long[effects.length][];
+        nextVoice = new int[effects.length];
+        lastPlayed = new long[effects.length];
+        for (int i = 0; i < effects.length; i++) {
+            voices[i] = new long[effects[i].voices];
+            for (int v = 0; v < voices[i].length; v++) {
+                voices[i][v] = -1;
+            }
+            lastPlayed[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Plays an Effect, unless it was triggered too recently. Stops
+     * its oldest instance if they are all playing.
+     * @param effect the Effect.
+     * @return the id of the instance, or -1 if nothing was played.
+     */
+    public long play (Effect effect) {
+        int index = effect.ordinal();
+        long now = TimeUtils.nanoTime();
+        if (lastPlayed[index] != Long.MIN_VALUE
+                && now - lastPlayed[index] < (long) (effect.minInterval * 1e9f)) {
+            return -1;
+        }
+        lastPlayed[index] = now;
+
+        Sound sound = sounds[index];
+        if (sound == null) {
+            sound = assets.getSound(effect.fileName);
+            sounds[index] = sound;
+        }
+
+        long[] ring = voices[index];
+        int slot = nextVoice[index];
+        if (ring[slot] != -1) {
+            // Every voice is taken, steal the oldest one.
+            sound.stop(ring[slot]);
+        }
+        long id = sound.play(effect.volume);
+        ring[slot] = id;
+        nextVoice[index] = slot + 1 == ring.length ? 0 : slot + 1;
+        return id;
+    }
+
+    /**
+     * Starts the background music, looping. Does nothing if it plays.
+     */
+    public void playMusic () {
+        if (music == null) {
+            music = assets.getMusic(AssetCache.MUSIC);
+            music.setLooping(true);
+            music.setVolume(MUSIC_VOLUME);
+        }
+        if (!music.isPlaying()) {
+            music.play();
+        }
+    }
+
+    /**
+     * Returns whether the background music was started.
+     * @return <code>true</code> if the music was started.
+     */
+    public boolean isMusicStarted () {
+        return music != null;
+    }
+
+    /**
+     * Stops every sound and gives them back.
+     */
+    @Override
+    public void dispose () {
+        Effect[] effects = Effect.values();
+        for (int i = 0; i < sounds.length; i++) {
+            if (sounds[i] != null) {
+                sounds[i].stop();
+                assets.release(effects[i].fileName);
+                sounds[i] = null;
+            }
+        }
+        if (music != null) {
+            music.stop();
+            assets.release(AssetCache.MUSIC);
+            music = null;
+        }
+    }
+}
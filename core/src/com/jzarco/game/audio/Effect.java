@@ -0,0 +1,29 @@
+package com.jzarco.game.audio;
+
+import com.jzarco.game.assets.AssetCache;
+
+/**
+ * Sound effects of the game, with how many of each can play at once
+ * and how often each can be triggered.
+ */
+public enum Effect {
+
+    /* Flap of the Bird on every jump. */
+    FLAP(AssetCache.FLAP, 0.5f, 2, 0.08f);
+
+    /* Internal path of the sound. */
+    final String fileName;
+    /* Volume, from 0 to 1. */
+    final float volume;
+    /* Maximum number of instances playing at once. */
+    final int voices;
+    /* Minimum time between two triggers, in seconds. */
+    final float minInterval;
+
+    Effect (String fileName, float volume, int voices, float minInterval) {
+        this.fileName = fileName;
+        this.volume = volume;
+        this.voices = voices;
+        this.minInterval = minInterval;
+    }
+}
@@ -0,0 +1,499 @@
+package com.jzarco.game.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Class to represent a FrameProfiler, which measures where the time
+ * of every frame goes: update and render of each state, sprite batch
+ * render calls, texture binds, sprites drawn and culled, Java heap
+ * and garbage collections.
+ *
+ * The numbers are shown in an overlay toggled with F3 or a three
+ * finger touch, as rolling min/avg/p99, and can be dumped to a CSV
+ * file toggled with F4. When both are off only the state timings are
+ * taken, which costs a few clock reads per frame.
+ *
+ * The frames of the dump are buffered in a few reused chunks, and a
+ * writer thread appends them to the file, so the game thread never
+ * waits for the disk. If the writer is behind, the chunk being filled
+ * keeps growing until one is free again.
+ */
+public class FrameProfiler implements Disposable {
+
+    /* Tag used for logging. */
+    private static final String TAG = "FrameProfiler";
+    /* Frames kept for the rolling statistics, four seconds at 60 fps. */
+    private static final int WINDOW = 240;
+    /* Seconds between two refreshes of the overlay. */
+    private static final float REFRESH = 0.5f;
+    /* Frames buffered before handing them to the writer. */
+    private static final int CSV_FLUSH = 60;
+    /* Chunks of buffered frames, filled, being written or free. */
+    private static final int CSV_CHUNKS = 3;
+    /* File the frames are dumped to. */
+    private static final String CSV = "frames.csv";
+    /* First line of the CSV file. */
+    private static final String CSV_HEADER = "frame,state,update_us,render_us,frame_ms,render_calls,"
+            + "texture_bindings,drawn,culled,heap_kb,gc_count,gc_ms\n";
+
+    /**
+     * Class to represent a chunk of the CSV file, filled by the game
+     * thread and written by the writer thread.
+     */
+    private static class CsvChunk {
+        /* File the lines are written to. */
+        private FileHandle file;
+        /* Whether the lines start the file, or are appended to it. */
+        private boolean start;
+        /* Lines of the chunk. */
+        private final StringBuilder lines = new StringBuilder(8192);
+    }
+
+    /* Chunk handed to the writer to stop it. */
+    private static final CsvChunk STOP = new CsvChunk();
+
+    /**
+     * Class to represent the timings of one state.
+     */
+    private static class StateTimings {
+        /* Name of the state. */
+        private final String name;
+        /* Update and render time, in microseconds per frame. */
+        private final RollingStats update = new RollingStats(WINDOW);
+        private final RollingStats render = new RollingStats(WINDOW);
+        /* Time spent during the current frame. */
+        private long frameUpdate;
+        private long frameRender;
+        /* Whether the state ran during the current frame. */
+        private boolean active;
+
+        private StateTimings (String name) {
+            this.name = name;
+        }
+    }
+
+    /* Timings of every state, by class. */
+    private final ObjectMap<Class<?>, StateTimings> states;
+    /* Timings of every state, in order of appearance. */
+    private final Array<StateTimings> order;
+    /* Whole frame time, in milliseconds. */
+    private final RollingStats frameTime;
+    /* Sprite batch render calls per frame. */
+    private final RollingStats renderCalls;
+    /* Texture binds per frame. */
+    private final RollingStats textureBindings;
+    /* Sprites drawn and culled per frame. */
+    private final RollingStats drawn;
+    private final RollingStats culled;
+    /* Counts the GL calls while the numbers are shown or dumped. */
+    private final GLProfiler glProfiler;
+    /* Font of the overlay. */
+    private final BitmapFont font;
+    /* Projection of the overlay, in screen pixels. */
+    private final Matrix4 projection;
+    /* Text of the overlay. */
+    private final StringBuilder text;
+    /* Chunks free to be filled, and chunks waiting for the writer. */
+    private final ArrayBlockingQueue<CsvChunk> freeChunks;
+    private final ArrayBlockingQueue<CsvChunk> fullChunks;
+    /* Writes the chunks to the CSV file. */
+    private final Thread writer;
+    /* Whether the overlay is shown. */
+    private boolean visible;
+    /* File the frames are dumped to, or null. */
+    private FileHandle csv;
+    /* Chunk being filled while dumping, or null. */
+    private CsvChunk chunk;
+    /* Frames buffered in the chunk. */
+    private int csvFrames;
+    /* Frame counter. */
+    private long frame;
+    /* Start of the current frame. */
+    private long frameStart;
+    /* Seconds until the overlay is refreshed. */
+    private float refresh;
+    /* Whether three fingers touched the screen on the last frame. */
+    private boolean threeFingers;
+
+    /**
+     * Defines the initial state of a FrameProfiler.
+     */
+    public FrameProfiler () {
+        states = new ObjectMap<Class<?>, StateTimings>();
+        order = new Array<StateTimings>();
+        frameTime = new RollingStats(WINDOW);
+        renderCalls = new RollingStats(WINDOW);
+        textureBindings = new RollingStats(WINDOW);
+        drawn = new RollingStats(WINDOW);
+        culled = new RollingStats(WINDOW);
+        glProfiler = new GLProfiler(Gdx.graphics);
+        font = new BitmapFont();
+        projection = new Matrix4();
+        text = new StringBuilder(512);
+        freeChunks = new ArrayBlockingQueue<CsvChunk>(CSV_CHUNKS);
+        // Room for every chunk and the stop, handing off never waits.
+        fullChunks = new ArrayBlockingQueue<CsvChunk>(CSV_CHUNKS + 1);
+        for (int i = 0; i < CSV_CHUNKS; i++) {
+            freeChunks.add(new CsvChunk());
+        }
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run () {
+                writeChunks();
+            }
+        }, "frame-profiler-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Toggles the overlay with F3 or a three finger touch,
+     * and the CSV dump with F4.
+     */
+    public void handleInput () {
+        boolean touched = Gdx.input.isTouched(2);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3) || (touched && !threeFingers)) {
+            visible = !visible;
+            updateGlProfiler();
+        }
+        threeFingers = touched;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            setCsv(csv == null ? Gdx.files.local(CSV) : null);
+        }
+    }
+
+    /**
+     * Starts or stops dumping every frame to a CSV file.
+     * @param file the file, or <code>null</code> to stop.
+     */
+    public void setCsv (FileHandle file) {
+        if (csv != null) {
+            fullChunks.add(chunk);
+            chunk = null;
+        }
+        csv = file;
+        if (csv != null) {
+            chunk = takeFreeChunk();
+            chunk.file = csv;
+            chunk.start = true;
+            chunk.lines.append(CSV_HEADER);
+            csvFrames = 0;
+            Gdx.app.log(TAG, "Dumping frames to " + csv.path());
+        }
+        updateGlProfiler();
+    }
+
+    /**
+     * Returns a free chunk, waiting for the writer only if it still
+     * holds every chunk of an earlier dump.
+     * @return the free chunk.
+     */
+    private CsvChunk takeFreeChunk () {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return freeChunks.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Enables the GL call counts only while somebody looks at them.
+     */
+    private void updateGlProfiler () {
+        if (visible || csv != null) {
+            glProfiler.enable();
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    /**
+     * Marks the beginning of a frame.
+     */
+    public void beginFrame () {
+        frameStart = TimeUtils.nanoTime();
+    }
+
+    /**
+     * Adds time spent updating a state during this frame.
+     * @param state the class of the state.
+     * @param nanos the time, in nanoseconds.
+     */
+    public void addUpdate (Class<?> state, long nanos) {
+        StateTimings timings = get(state);
+        timings.frameUpdate += nanos;
+        timings.active = true;
+    }
+
+    /**
+     * Adds time spent rendering a state during this frame.
+     * @param state the class of the state.
+     * @param nanos the time, in nanoseconds.
+     */
+    public void addRender (Class<?> state, long nanos) {
+        StateTimings timings = get(state);
+        timings.frameRender += nanos;
+        timings.active = true;
+    }
+
+    /**
+     * Returns the timings of a state, created the first time.
+     * @param state the class of the state.
+     * @return the timings of the state.
+     */
+    private StateTimings get (Class<?> state) {
+        StateTimings timings = states.get(state);
+        if (timings == null) {
+            timings = new StateTimings(state.getSimpleName());
+            states.put(state, timings);
+            order.add(timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Marks the end of a frame and records its numbers.
+     * @param calls the sprite batch render calls of the frame.
+     * @param drawnSprites the sprites found in view.
+     * @param culledSprites the sprites culled outside the view.
+     */
+    public void endFrame (int calls, int drawnSprites, int culledSprites) {
+        frame++;
+        float frameMs = (TimeUtils.nanoTime() - frameStart) / 1e6f;
+        frameTime.add(frameMs);
+        renderCalls.add(calls);
+        int bindings = glProfiler.getTextureBindings();
+        textureBindings.add(bindings);
+        drawn.add(drawnSprites);
+        culled.add(culledSprites);
+        glProfiler.reset();
+
+        for (int i = 0; i < order.size; i++) {
+            StateTimings timings = order.get(i);
+            if (!timings.active) {
+                continue;
+            }
+            timings.update.add(timings.frameUpdate / 1000f);
+            timings.render.add(timings.frameRender / 1000f);
+            if (csv != null) {
+                chunk.lines.append(frame).append(',').append(timings.name)
+                        .append(',').append(timings.frameUpdate / 1000)
+                        .append(',').append(timings.frameRender / 1000)
+                        .append(',').append(frameMs)
+                        .append(',').append(calls)
+                        .append(',').append(bindings)
+                        .append(',').append(drawnSprites)
+                        .append(',').append(culledSprites)
+                        .append(',').append(Gdx.app.getJavaHeap() / 1024)
+                        .append(',').append(GcStats.getCount())
+                        .append(',').append(GcStats.getTime())
+                        .append('\n');
+            }
+            timings.frameUpdate = 0;
+            timings.frameRender = 0;
+            timings.active = false;
+        }
+
+        if (csv != null && ++csvFrames >= CSV_FLUSH) {
+            flushCsv();
+        }
+
+        refresh -= Gdx.graphics.getDeltaTime();
+        if (visible && refresh <= 0) {
+            refresh = REFRESH;
+            buildText();
+        }
+    }
+
+    /**
+     * Hands the buffered lines to the writer, if a free chunk can take
+     * the next ones.
+     */
+    private void flushCsv () {
+        CsvChunk next = freeChunks.poll();
+        if (next == null) {
+            return;
+        }
+        fullChunks.add(chunk);
+        chunk = next;
+        chunk.file = csv;
+        chunk.start = false;
+        csvFrames = 0;
+    }
+
+    /**
+     * Writes the chunks to their files until stopped, and frees them.
+     * After a failure the chunks are dropped, so the dump stops.
+     */
+    private void writeChunks () {
+        boolean failed = false;
+        while (true) {
+            CsvChunk full;
+            try {
+                full = fullChunks.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (full == STOP) {
+                return;
+            }
+            if (!failed) {
+                failed = !writeChunk(full);
+            }
+            full.file = null;
+            full.lines.setLength(0);
+            freeChunks.add(full);
+        }
+    }
+
+    /**
+     * Writes a chunk to its file.
+     * @param full the chunk.
+     * @return <code>false</code> if the file can't be written.
+     */
+    private boolean writeChunk (CsvChunk full) {
+        try {
+            Writer out = full.file.writer(!full.start);
+            try {
+                out.write(full.lines.chars, 0, full.lines.length);
+            } finally {
+                out.close();
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error(TAG, "Can't write " + full.file.path(), e);
+        }
+        return false;
+    }
+
+    /**
+     * Computes the statistics and writes the overlay text.
+     */
+    private void buildText () {
+        frameTime.compute();
+        renderCalls.compute();
+        textureBindings.compute();
+        drawn.compute();
+        culled.compute();
+
+        text.setLength(0);
+        text.append("FPS ").append(Gdx.graphics.getFramesPerSecond()).append('\n');
+        text.append("frame ms ");
+        appendStats(frameTime);
+        for (int i = 0; i < order.size; i++) {
+            StateTimings timings = order.get(i);
+            timings.update.compute();
+            timings.render.compute();
+            text.append(timings.name).append(" update us ");
+            appendStats(timings.update);
+            text.append(timings.name).append(" render us ");
+            appendStats(timings.render);
+        }
+        text.append("render calls ");
+        appendStats(renderCalls);
+        text.append("texture binds ");
+        appendStats(textureBindings);
+        text.append("drawn ");
+        appendStats(drawn);
+        text.append("culled ");
+        appendStats(culled);
+        text.append("heap MB ").append(Gdx.app.getJavaHeap() / (1024 * 1024));
+        long gcCount = GcStats.getCount();
+        if (gcCount >= 0) {
+            text.append("  gc ").append(gcCount).append(" (").append(GcStats.getTime()).append(" ms)");
+        }
+        text.append('\n');
+    }
+
+    /**
+     * Appends a min/avg/p99 line to the overlay text.
+     * @param stats the statistics, rounded.
+     */
+    private void appendStats (RollingStats stats) {
+        text.append(Math.round(stats.getMin())).append(" / ")
+                .append(Math.round(stats.getAvg())).append(" / ")
+                .append(Math.round(stats.getP99())).append('\n');
+    }
+
+    /**
+     * Draws the overlay, if shown, over everything else.
+     * @param sb the sprite batch, not begun.
+     */
+    public void render (SpriteBatch sb) {
+        if (!visible) {
+            return;
+        }
+        sb.setProjectionMatrix(projection);
+        sb.begin();
+        font.draw(sb, text, 8, Gdx.graphics.getHeight() - 8);
+        sb.end();
+    }
+
+    /**
+     * Fits the overlay to the screen.
+     * @param width the width of the screen.
+     * @param height the height of the screen.
+     */
+    public void resize (int width, int height) {
+        projection.setToOrtho2D(0, 0, width, height);
+    }
+
+    /**
+     * Returns whether the overlay is shown.
+     * @return <code>true</code> if the overlay is shown.
+     */
+    public boolean isVisible () {
+        return visible;
+    }
+
+    /**
+     * Writes the frames left, then disposes.
+     */
+    @Override
+    public void dispose () {
+        if (csv != null) {
+            fullChunks.add(chunk);
+            chunk = null;
+            csv = null;
+        }
+        fullChunks.add(STOP);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        glProfiler.disable();
+        font.dispose();
+    }
+}
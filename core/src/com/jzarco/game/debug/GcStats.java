@@ -0,0 +1,61 @@
+package com.jzarco.game.debug;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Class to read the garbage collection count and time of the JVM.
+ * java.lang.management doesn't exist on Android, so every reading
+ * returns -1 there instead of failing.
+ */
+final class GcStats {
+
+    /* Collectors of the JVM, or null if they can't be read. */
+    private static final List<GarbageCollectorMXBean> collectors = load();
+
+    private GcStats () {
+    }
+
+    /**
+     * Loads the collectors, if the platform has them.
+     * @return the collectors, or <code>null</code>.
+     */
+    private static List<GarbageCollectorMXBean> load () {
+        try {
+            return ManagementFactory.getGarbageCollectorMXBeans();
+        } catch (Throwable unavailable) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of collections since the start.
+     * @return the number of collections, or -1 if unknown.
+     */
+    static long getCount () {
+        if (collectors == null) {
+            return -1;
+        }
+        long count = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            count += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Returns the time spent collecting since the start.
+     * @return the time in milliseconds, or -1 if unknown.
+     */
+    static long getTime () {
+        if (collectors == null) {
+            return -1;
+        }
+        long time = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            time += Math.max(0, collectors.get(i).getCollectionTime());
+        }
+        return time;
+    }
+}
@@ -0,0 +1,88 @@
+package com.jzarco.game.debug;
+
+import java.util.Arrays;
+
+/**
+ * Class to represent the statistics of the last samples of a
+ * measure. Keeps a fixed window of samples and computes their
+ * minimum, average and 99th percentile without allocating.
+ */
+public class RollingStats {
+
+    /* Last samples, a ring. */
+    private final float[] samples;
+    /* Copy of the samples, sorted to find the percentile. */
+    private final float[] sorted;
+    /* Next sample to overwrite. */
+    private int next;
+    /* Number of samples in the window. */
+    private int count;
+    /* Statistics of the window, as of the last compute. */
+    private float min;
+    private float avg;
+    private float p99;
+
+    /**
+     * Defines the initial state of a RollingStats.
+     * @param window the number of samples kept.
+     */
+    public RollingStats (int window) {
+        samples = new float[window];
+        sorted = new float[window];
+    }
+
+    /**
+     * Adds a sample, dropping the oldest one if the window is full.
+     * @param value the sample.
+     */
+    public void add (float value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Computes the minimum, average and 99th percentile of the window.
+     */
+    public void compute () {
+        if (count == 0) {
+            min = avg = p99 = 0;
+            return;
+        }
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        float sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += sorted[i];
+        }
+        min = sorted[0];
+        avg = sum / count;
+        p99 = sorted[Math.min(count - 1, (int) Math.ceil(count * 0.99f) - 1)];
+    }
+
+    /**
+     * Returns the minimum of the window.
+     * @return the minimum of the window.
+     */
+    public float getMin () {
+        return min;
+    }
+
+    /**
+     * Returns the average of the window.
+     * @return the average of the window.
+     */
+    public float getAvg () {
+        return avg;
+    }
+
+    /**
+     * Returns the 99th percentile of the window.
+     * @return the 99th percentile of the window.
+     */
+    public float getP99 () {
+        return p99;
+    }
+}
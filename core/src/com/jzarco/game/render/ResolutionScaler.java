@@ -0,0 +1,185 @@
+package com.jzarco.game.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Class to represent a ResolutionScaler, which renders a frame into
+ * an offscreen buffer at a fraction of the resolution of the screen
+ * and upscales it to the screen through a {@link FitViewport}.
+ *
+ * Filling pixels is the cost on low-end phones, so the scale is
+ * lowered when the frames take longer than the target frame time and
+ * raised again, slowly, once they fit. A fixed scale turns it off.
+ */
+public class ResolutionScaler implements Disposable {
+
+    /* Tag used for logging. */
+    private static final String TAG = "ResolutionScaler";
+    /* Range of the scale, and the size of a change. */
+    public static final float MIN_SCALE = 0.5f;
+    public static final float MAX_SCALE = 1;
+    private static final float SCALE_STEP = 0.125f;
+    /* Weight of a frame in the average frame time. */
+    private static final float SMOOTHING = 0.05f;
+    /* Average frame time, relative to the target, above which the
+    scale is lowered and under which it can be raised. */
+    private static final float SLOW = 1.2f;
+    private static final float FAST = 1.05f;
+    /* Seconds since a change before lowering or raising it again. */
+    private static final float LOWER_DELAY = 0.5f;
+    private static final float RAISE_DELAY = 3;
+    /* Longest wait before raising it, after raising it failed again
+    and again, so a scale on the edge doesn't keep going back and forth. */
+    private static final float MAX_RAISE_DELAY = 60;
+    /* Longest frame taken into account, longer ones are stalls,
+    like loading, not the cost of the pixels. */
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    /* Fits the world to the screen, with bars if the ratios differ. */
+    private final Viewport viewport;
+    /* Whether the scale follows the frame time. */
+    private final boolean auto;
+    /* Target frame time, in seconds. */
+    private float targetFrameTime;
+    /* Fraction of the resolution of the screen rendered. */
+    private float scale;
+    /* Offscreen buffer, or null until the first frame. */
+    private FrameBuffer buffer;
+    /* Color of the buffer, flipped. */
+    private final TextureRegion region;
+    /* Average frame time, in seconds. */
+    private float average;
+    /* Seconds since the scale changed. */
+    private float sinceChange;
+    /* Seconds to wait before raising the scale. */
+    private float raiseDelay = RAISE_DELAY;
+    /* Whether the last change raised the scale. */
+    private boolean raised;
+
+    /**
+     * Defines the initial state of a ResolutionScaler.
+     * @param worldWidth the width of the world seen by the cameras.
+     * @param worldHeight the height of the world seen by the cameras.
+     * @param scale the fixed scale, or 0 to adapt it to the frame time.
+     * @param targetFrameTime the target frame time, in seconds.
+     */
+    public ResolutionScaler (float worldWidth, float worldHeight, float scale, float targetFrameTime) {
+        viewport = new FitViewport(worldWidth, worldHeight);
+        auto = scale <= 0;
+        this.scale = auto ? MAX_SCALE : MathUtils.clamp(scale, MIN_SCALE, MAX_SCALE);
+        this.targetFrameTime = targetFrameTime;
+        average = targetFrameTime;
+        region = new TextureRegion();
+    }
+
+    /**
+     * Sets the target frame time.
+     * @param targetFrameTime the target frame time, in seconds.
+     */
+    public void setTargetFrameTime (float targetFrameTime) {
+        this.targetFrameTime = targetFrameTime;
+    }
+
+    /**
+     * Adapts the scale to the time of the last frame.
+     * @param dt the time of the last frame, in seconds.
+     */
+    public void update (float dt) {
+        if (!auto || dt > MAX_FRAME_TIME) {
+            return;
+        }
+        average += (dt - average) * SMOOTHING;
+        sinceChange += dt;
+        if (average > targetFrameTime * SLOW && scale > MIN_SCALE && sinceChange > LOWER_DELAY) {
+            scale = Math.max(MIN_SCALE, scale - SCALE_STEP);
+            if (raised) {
+                // The higher scale didn't fit, wait longer to try it again.
+                raiseDelay = Math.min(MAX_RAISE_DELAY, raiseDelay * 2);
+            }
+            raised = false;
+            sinceChange = 0;
+        } else if (average < targetFrameTime * FAST && scale < MAX_SCALE && sinceChange > raiseDelay) {
+            scale = Math.min(MAX_SCALE, scale + SCALE_STEP);
+            raised = true;
+            sinceChange = 0;
+        }
+    }
+
+    /**
+     * Starts rendering into the offscreen buffer, created again if the
+     * scale or the screen changed. Everything drawn until
+     * {@link #end(SpriteBatch)} is drawn into the buffer.
+     */
+    public void begin () {
+        // Pixels of the screen covered by the viewport, in the back buffer.
+        float density = Gdx.graphics.getBackBufferWidth() / (float) Gdx.graphics.getWidth();
+        int width = Math.max(1, MathUtils.round(viewport.getScreenWidth() * density * scale));
+        int height = Math.max(1, MathUtils.round(viewport.getScreenHeight() * density * scale));
+        if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+            if (buffer != null) {
+                buffer.dispose();
+            }
+            buffer = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+            Texture texture = buffer.getColorBufferTexture();
+            texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            region.setRegion(texture);
+            region.flip(false, true);
+            Gdx.app.log(TAG, "Render scale " + scale + (auto ? " (auto)" : "") + ", " + width + "x" + height);
+        }
+        buffer.begin();
+    }
+
+    /**
+     * Stops rendering into the offscreen buffer and draws it over the
+     * viewport on the screen.
+     * @param sb the sprite batch, not begun.
+     */
+    public void end (SpriteBatch sb) {
+        buffer.end();
+        ScreenUtils.clear(0, 0, 0, 1);
+        viewport.apply();
+        sb.setProjectionMatrix(viewport.getCamera().combined);
+        sb.begin();
+        sb.draw(region, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+        sb.end();
+        // Back to the whole screen, for what is drawn over it.
+        Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+    }
+
+    /**
+     * Fits the viewport to the screen.
+     * @param width the width of the screen.
+     * @param height the height of the screen.
+     */
+    public void resize (int width, int height) {
+        viewport.update(width, height, true);
+    }
+
+    /**
+     * Returns the fraction of the resolution of the screen rendered.
+     * @return the scale, from {@link #MIN_SCALE} to {@link #MAX_SCALE}.
+     */
+    public float getScale () {
+        return scale;
+    }
+
+    /**
+     * Disposes.
+     */
+    @Override
+    public void dispose () {
+        if (buffer != null) {
+            buffer.dispose();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.jzarco.game.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Class to represent a Replay, everything needed to play a game
+ * again: the seed of the course, the step and the ticks of the jumps.
+ *
+ * The binary format is a header (magic, version, seed, step, last
+ * tick, score, number of jumps) followed by the jumps, each one the
+ * ticks since the previous jump as a variable length integer, so a
+ * jump usually takes a single byte.
+ */
+public class Replay {
+
+    /* Extension of the replay files. */
+    public static final String EXTENSION = ".rep";
+    /* First bytes of a replay file, "FLRP". */
+    private static final int MAGIC = 0x464C5250;
+    /* Version of the format, and of the game rules it is played
+    with: 2 since the Bird is swept against the Tubes. */
+    private static final int VERSION = 2;
+
+    /* Seed of the course. */
+    private long seed;
+    /* Delta time of every step. */
+    private float step;
+    /* Ticks at which the Bird jumped, before stepping, in order. */
+    private int[] jumps;
+    /* Number of jumps. */
+    private int jumpCount;
+    /* Tick at which the game ended. */
+    private int endTick;
+    /* Score at the end of the game. */
+    private int score;
+
+    /**
+     * Defines the initial state of a Replay.
+     */
+    public Replay () {
+        jumps = new int[64];
+    }
+
+    /**
+     * Clears the Replay for a new game.
+     * @param seed the seed of the course.
+     * @param step the delta time of every step.
+     */
+    public void start (long seed, float step) {
+        this.seed = seed;
+        this.step = step;
+        jumpCount = 0;
+        endTick = 0;
+        score = 0;
+    }
+
+    /**
+     * Adds a jump. Jumping twice before the same step is the same as
+     * jumping once, so it is only kept once.
+     * @param tick the number of steps simulated before the jump.
+     */
+    public void addJump (int tick) {
+        if (jumpCount > 0 && jumps[jumpCount - 1] == tick) {
+            return;
+        }
+        if (jumpCount == jumps.length) {
+            int[] grown = new int[jumps.length * 2];
+            System.arraycopy(jumps, 0, grown, 0, jumpCount);
+            jumps = grown;
+        }
+        jumps[jumpCount++] = tick;
+    }
+
+    /**
+     * Ends the Replay.
+     * @param endTick the tick at which the game ended.
+     * @param score the score at the end of the game.
+     */
+    public void finish (int endTick, int score) {
+        this.endTick = endTick;
+        this.score = score;
+    }
+
+    /**
+     * Writes the Replay in the binary format.
+     * @param out the stream to write to, left open.
+     * @throws IOException if the stream fails.
+     */
+    public void write (OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        data.writeFloat(step);
+        writeVarInt(data, endTick);
+        writeVarInt(data, score);
+        writeVarInt(data, jumpCount);
+        int previous = 0;
+        for (int i = 0; i < jumpCount; i++) {
+            writeVarInt(data, jumps[i] - previous);
+            previous = jumps[i];
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a Replay in the binary format.
+     * @param in the stream to read from, left open.
+     * @return the Replay.
+     * @throws IOException if the stream fails or isn't a Replay.
+     */
+    public static Replay read (InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a replay.");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+        Replay replay = new Replay();
+        replay.start(data.readLong(), data.readFloat());
+        int endTick = readVarInt(data);
+        int score = readVarInt(data);
+        int count = readVarInt(data);
+        int tick = 0;
+        for (int i = 0; i < count; i++) {
+            tick += readVarInt(data);
+            replay.addJump(tick);
+        }
+        replay.finish(endTick, score);
+        return replay;
+    }
+
+    /**
+     * Writes a non negative integer, 7 bits per byte.
+     * @param data the stream.
+     * @param value the integer.
+     * @throws IOException if the stream fails.
+     */
+    private static void writeVarInt (DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    /**
+     * Reads a non negative integer, 7 bits per byte.
+     * @param data the stream.
+     * @return the integer.
+     * @throws IOException if the stream fails or the integer is too long.
+     */
+    private static int readVarInt (DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed replay.");
+    }
+
+    /**
+     * Returns the seed of the course.
+     * @return the seed of the course.
+     */
+    public long getSeed () {
+        return seed;
+    }
+
+    /**
+     * Returns the delta time of every step.
+     * @return the delta time of every step.
+     */
+    public float getStep () {
+        return step;
+    }
+
+    /**
+     * Returns the number of jumps.
+     * @return the number of jumps.
+     */
+    public int getJumpCount () {
+        return jumpCount;
+    }
+
+    /**
+     * Returns the tick of a jump.
+     * @param index the index of the jump.
+     * @return the number of steps simulated before the jump.
+     */
+    public int getJump (int index) {
+        return jumps[index];
+    }
+
+    /**
+     * Returns the tick at which the game ended.
+     * @return the tick at which the game ended.
+     */
+    public int getEndTick () {
+        return endTick;
+    }
+
+    /**
+     * Returns the score at the end of the game.
+     * @return the score at the end of the game.
+     */
+    public int getScore () {
+        return score;
+    }
+}
@@ -0,0 +1,125 @@
+package com.jzarco.game.replay;
+
+import com.jzarco.game.sim.Simulation;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class to represent a ReplayPlayer, which plays Replays again on a
+ * headless {@link Simulation}, as fast as the CPU allows, and checks
+ * they end at the recorded tick with the recorded score.
+ *
+ * Run from the command line with replay files or directories of
+ * replay files as arguments, it checks all of them and exits with 1
+ * if any doesn't match.
+ */
+public class ReplayPlayer {
+
+    /* Rules of the game, reused for every Replay. */
+    private final Simulation sim;
+
+    /**
+     * Defines the initial state of a ReplayPlayer.
+     */
+    public ReplayPlayer () {
+        sim = new Simulation();
+    }
+
+    /**
+     * Plays a Replay until the game ends or the recorded end is passed.
+     * @param replay the Replay.
+     * @return <code>true</code> if the game ended at the recorded tick
+     *          with the recorded score, <code>false</code> otherwise.
+     */
+    public boolean play (Replay replay) {
+        sim.reset(replay.getSeed());
+        float step = replay.getStep();
+        int endTick = replay.getEndTick();
+        int jumpCount = replay.getJumpCount();
+        int next = 0;
+        while (!sim.isOver() && sim.getTick() < endTick) {
+            if (next < jumpCount && replay.getJump(next) <= sim.getTick()) {
+                sim.jump();
+                next++;
+            }
+            sim.step(step);
+        }
+        return sim.isOver() && sim.getTick() == endTick && sim.getScore() == replay.getScore();
+    }
+
+    /**
+     * Returns the Simulation, as the last Replay left it.
+     * @return the Simulation.
+     */
+    public Simulation getSimulation () {
+        return sim;
+    }
+
+    /**
+     * Checks replay files.
+     * @param args the replay files, or directories of replay files.
+     * @throws IOException if a file can't be read.
+     */
+    public static void main (String[] args) throws IOException {
+        List<File> files = new ArrayList<File>();
+        for (String arg : args) {
+            File file = new File(arg);
+            File[] children = file.listFiles();
+            if (children == null) {
+                files.add(file);
+                continue;
+            }
+            Arrays.sort(children);
+            for (File child : children) {
+                if (child.getName().endsWith(Replay.EXTENSION)) {
+                    files.add(child);
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: ReplayPlayer <replay files or directories>");
+            System.exit(2);
+        }
+
+        ReplayPlayer player = new ReplayPlayer();
+        int mismatches = 0;
+        long ticks = 0;
+        double playedSeconds = 0;
+        long nanos = 0;
+        for (File file : files) {
+            Replay replay;
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                replay = Replay.read(in);
+            } finally {
+                in.close();
+            }
+
+            long start = System.nanoTime();
+            boolean ok = player.play(replay);
+            nanos += System.nanoTime() - start;
+
+            Simulation sim = player.getSimulation();
+            ticks += sim.getTick();
+            playedSeconds += sim.getTick() * (double) replay.getStep();
+            if (!ok) {
+                mismatches++;
+            }
+            System.out.println(String.format("%s: score %d at tick %d, recorded %d at tick %d, %s",
+                    file.getName(), sim.getScore(), sim.getTick(),
+                    replay.getScore(), replay.getEndTick(), ok ? "ok" : "MISMATCH"));
+        }
+
+        double seconds = Math.max(nanos, 1) / 1e9;
+        System.out.println(String.format("%d replays, %d mismatches, %d ticks in %.3f s, %.0fx real time",
+                files.size(), mismatches, ticks, seconds, playedSeconds / seconds));
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+}
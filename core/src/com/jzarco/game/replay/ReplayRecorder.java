@@ -0,0 +1,63 @@
+package com.jzarco.game.replay;
+
+import com.jzarco.game.sim.Simulation;
+
+/**
+ * Class to represent a ReplayRecorder, which records the game being
+ * played and keeps the last finished one. The two Replays are swapped
+ * when a game ends, so recording doesn't allocate once warmed up.
+ */
+public class ReplayRecorder {
+
+    /* Game being played. */
+    private Replay current;
+    /* Last finished game. */
+    private Replay last;
+    /* Whether a game was finished. */
+    private boolean hasLast;
+
+    /**
+     * Defines the initial state of a ReplayRecorder.
+     */
+    public ReplayRecorder () {
+        current = new Replay();
+        last = new Replay();
+    }
+
+    /**
+     * Starts recording a new game, stepped by {@link Simulation#STEP}.
+     * @param seed the seed of the course.
+     */
+    public void start (long seed) {
+        current.start(seed, Simulation.STEP);
+    }
+
+    /**
+     * Records a jump.
+     * @param tick the number of steps simulated before the jump.
+     */
+    public void jump (int tick) {
+        current.addJump(tick);
+    }
+
+    /**
+     * Ends the game being recorded, which becomes the last one.
+     * @param endTick the tick at which the game ended.
+     * @param score the score at the end of the game.
+     */
+    public void finish (int endTick, int score) {
+        current.finish(endTick, score);
+        Replay finished = current;
+        current = last;
+        last = finished;
+        hasLast = true;
+    }
+
+    /**
+     * Returns the last finished game.
+     * @return the last finished game, or <code>null</code> if none.
+     */
+    public Replay getLast () {
+        return hasLast ? last : null;
+    }
+}
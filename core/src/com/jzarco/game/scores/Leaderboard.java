@@ -0,0 +1,372 @@
+package com.jzarco.game.scores;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Class to represent a Leaderboard, which records every finished run
+ * in a {@link ScoreLog} and keeps the best of them in memory.
+ *
+ * The files are loaded by a writer thread, the game thread polls
+ * {@link #isLoaded()} and only uses the Leaderboard once it is. It
+ * then only updates its {@link TopScores} and hands the run to the
+ * writer through a lock-free ring, so recording never waits for the
+ * disk nor allocates. The writer appends the runs in batches, a few
+ * times per second, and from time to time saves a snapshot of the best
+ * runs and of how much of the log they cover. Loading reads the
+ * snapshot and only replays the log after it, so it stays fast however
+ * many runs were recorded. Without a valid snapshot the whole log is
+ * replayed.
+ *
+ * If the ring is full the run is still ranked, but not saved.
+ */
+public class Leaderboard implements Disposable {
+
+    /* Files of the log and of the snapshot, in the directory. */
+    public static final String LOG = "scores.log";
+    public static final String SNAPSHOT = "scores.top";
+    /* Header of the snapshot: magic number and version. */
+    private static final int MAGIC = 0x464C5450; // "FLTP"
+    private static final int VERSION = 1;
+    /* Runs waiting for the writer, a power of two. */
+    private static final int RING = 4096;
+    /* Time between two batches of the writer. */
+    private static final long FLUSH_NANOS = 100000000L;
+    /* Runs appended between two snapshots. */
+    private static final int SNAPSHOT_EVERY = 4096;
+
+    /* Directory of the files. */
+    private final File dir;
+    /* Best runs, for the game thread once loaded. */
+    private final TopScores top;
+    /* Best runs, for the writer thread, saved in the snapshots. */
+    private final TopScores saved;
+    /* Every run, only used by the writer thread, or null until opened. */
+    private ScoreLog log;
+    /* Runs waiting for the writer: seed, tick and score, time. */
+    private final long[] ringSeeds;
+    private final long[] ringRuns;
+    private final int[] ringTimes;
+    /* Next run to write and next run to record, in the ring. */
+    private final AtomicLong head;
+    private final AtomicLong tail;
+    /* Last head seen by the game thread. */
+    private long cachedHead;
+    /* Number of runs recorded, loaded ones included. */
+    private long recordedRuns;
+    /* Time the loading took, in nanoseconds. */
+    private long loadNanos;
+    /* Number of runs not saved because the ring was full. */
+    private int dropped;
+    /* Records of the log covered by the last snapshot. */
+    private long snapshotAt;
+    /* Writer thread, and whether it keeps writing. */
+    private final Thread writer;
+    private volatile boolean running;
+    /* Whether the writer loaded the files, publishing the best runs. */
+    private volatile boolean loaded;
+    /* Failure of the writer, which then stops saving. */
+    private volatile IOException error;
+
+    /**
+     * Defines the initial state of a Leaderboard and starts the writer,
+     * which loads the runs recorded in the directory.
+     * @param dir the directory of the files, created if missing.
+     * @param size the number of best runs kept.
+     */
+    public Leaderboard (File dir, int size) {
+        this.dir = dir;
+        top = new TopScores(size);
+        saved = new TopScores(size);
+        ringSeeds = new long[RING];
+        ringRuns = new long[RING];
+        ringTimes = new int[RING];
+        head = new AtomicLong();
+        tail = new AtomicLong();
+        running = true;
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run () {
+                try {
+                    open();
+                } catch (IOException e) {
+                    error = e;
+                    return;
+                }
+                write();
+            }
+        }, "leaderboard-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens and loads the files, then publishes the best runs to the
+     * game thread.
+     * @throws IOException if the files can't be opened.
+     */
+    private void open () throws IOException {
+        long start = System.nanoTime();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create " + dir);
+        }
+        log = new ScoreLog(new File(dir, LOG));
+        try {
+            load();
+        } catch (IOException e) {
+            log.close();
+            log = null;
+            throw e;
+        }
+        recordedRuns = log.getSize();
+        loadNanos = System.nanoTime() - start;
+        loaded = true;
+    }
+
+    /**
+     * Loads the snapshot, if it is valid and the log still holds the
+     * records it covers, then replays the rest of the log.
+     * @throws IOException if the log can't be read.
+     */
+    private void load () throws IOException {
+        long covered = readSnapshot();
+        if (covered < 0 || !log.contains(covered)) {
+            saved.clear();
+            covered = 0;
+        }
+        log.recover(covered);
+        log.read(covered, log.getSize(), saved);
+        snapshotAt = covered;
+        copy(saved, top);
+    }
+
+    /**
+     * Reads the snapshot into the saved runs.
+     * @return the number of records of the log it covers, or -1 if it
+     *         is missing or invalid.
+     */
+    private long readSnapshot () {
+        File file = new File(dir, SNAPSHOT);
+        if (!file.isFile()) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(new FileInputStream(file)), crc))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return -1;
+            }
+            long covered = in.readLong();
+            saved.read(in);
+            long expected = crc.getValue();
+            return covered >= 0 && in.readLong() == expected ? covered : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Saves the snapshot, written aside then renamed, so a crash
+     * leaves the last one whole.
+     * @throws IOException if the snapshot can't be written.
+     */
+    private void writeSnapshot () throws IOException {
+        File file = new File(dir, SNAPSHOT);
+        File temp = new File(dir, SNAPSHOT + ".tmp");
+        CRC32 crc = new CRC32();
+        FileOutputStream stream = new FileOutputStream(temp);
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(stream), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(log.getSize());
+            saved.write(out);
+            out.flush();
+            out.writeLong(crc.getValue());
+            out.flush();
+            stream.getFD().sync();
+        }
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+            throw new IOException("Can't replace " + file);
+        }
+        snapshotAt = log.getSize();
+    }
+
+    /**
+     * Copies top scores.
+     * @param from the runs copied.
+     * @param to the runs replaced.
+     */
+    private static void copy (TopScores from, TopScores to) {
+        to.clear();
+        for (int i = 0; i < from.getSize(); i++) {
+            to.add(from.getScore(i), from.getTick(i), from.getSeed(i), from.getTime(i));
+        }
+    }
+
+    /**
+     * Returns whether the files are loaded, after which the game thread
+     * may record runs and read the best ones.
+     * @return <code>true</code> once loaded.
+     */
+    public boolean isLoaded () {
+        return loaded;
+    }
+
+    /**
+     * Records a finished run. Only called from the game thread, once
+     * loaded.
+     * @param score the score.
+     * @param tick the tick the run ended at.
+     * @param seed the seed of the course.
+     * @return the rank of the run from 0, or -1 if it isn't among the best.
+     */
+    public int record (int score, int tick, long seed) {
+        int time = (int) (System.currentTimeMillis() / 1000);
+        recordedRuns++;
+        long t = tail.get();
+        if (t - cachedHead >= RING) {
+            cachedHead = head.get();
+        }
+        if (t - cachedHead >= RING) {
+            dropped++;
+        } else {
+            int i = (int) t & (RING - 1);
+            ringSeeds[i] = seed;
+            ringRuns[i] = (long) tick << 32 | (score & 0xFFFFFFFFL);
+            ringTimes[i] = time;
+            // Publishes the slot to the writer.
+            tail.lazySet(t + 1);
+        }
+        return top.add(score, tick, seed, time);
+    }
+
+    /**
+     * Writes the runs of the ring in batches until disposed.
+     */
+    private void write () {
+        try {
+            while (running) {
+                drain();
+                LockSupport.parkNanos(this, FLUSH_NANOS);
+            }
+            drain();
+            if (log.getSize() != snapshotAt) {
+                writeSnapshot();
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Appends the runs of the ring to the log, then makes them durable.
+     * @throws IOException if the log or the snapshot can't be written.
+     */
+    private void drain () throws IOException {
+        long h = head.get();
+        long t = tail.get();
+        if (h == t) {
+            return;
+        }
+        for (; h < t; h++) {
+            int i = (int) h & (RING - 1);
+            long seed = ringSeeds[i];
+            int tick = (int) (ringRuns[i] >>> 32);
+            int score = (int) ringRuns[i];
+            log.append(seed, ringTimes[i], tick, score);
+            saved.add(score, tick, seed, ringTimes[i]);
+        }
+        // Frees the slots for the game thread.
+        head.lazySet(t);
+        log.force();
+        if (log.getSize() - snapshotAt >= SNAPSHOT_EVERY) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Returns the best runs. Only called from the game thread, once
+     * loaded.
+     * @return the best runs, sorted from the highest score.
+     */
+    public TopScores getTop () {
+        return top;
+    }
+
+    /**
+     * Returns the number of runs recorded, loaded ones included.
+     * @return the number of runs recorded.
+     */
+    public long getRecordedRuns () {
+        return recordedRuns;
+    }
+
+    /**
+     * Returns the time the loading took.
+     * @return the time, in nanoseconds.
+     */
+    public long getLoadNanos () {
+        return loadNanos;
+    }
+
+    /**
+     * Returns the number of runs not saved because the writer was
+     * behind.
+     * @return the number of runs dropped.
+     */
+    public int getDropped () {
+        return dropped;
+    }
+
+    /**
+     * Returns the failure of the writer, after which nothing is saved,
+     * or why the files couldn't be loaded.
+     * @return the failure, or <code>null</code>.
+     */
+    public IOException getError () {
+        return error;
+    }
+
+    /**
+     * Writes the runs left and a last snapshot, then closes the log.
+     */
+    @Override
+    public void dispose () {
+        running = false;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
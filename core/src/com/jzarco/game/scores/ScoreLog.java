@@ -0,0 +1,223 @@
+package com.jzarco.game.scores;
+
+import com.jzarco.game.sim.SplitMix;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Class to represent a ScoreLog, an append-only file of every finished
+ * run, written through a memory-mapped window that moves along the
+ * file as it grows.
+ *
+ * A record is 24 bytes: the seed of the course, the time in seconds,
+ * the tick the run ended at, the score and a checksum of the four,
+ * written last. A record torn by a crash, or the zeros after the last
+ * record, fail the checksum, so the log is recovered by reading
+ * records until the first invalid one, and appending over it. The
+ * valid records a crash can leave past it, flushed before the torn one,
+ * are cleared, so a later recovery can't bring them back.
+ */
+class ScoreLog {
+
+    /* Size of a record, and of the header before the first one. */
+    static final int RECORD = 24;
+    /* Header of the file: magic number and version. */
+    private static final int MAGIC = 0x464C4C42; // "FLLB"
+    private static final int VERSION = 1;
+    /* Records mapped at once, about a megabyte. */
+    private static final int WINDOW_RECORDS = 43690;
+    /* Mixed into the checksum, so zeros aren't a valid record. */
+    private static final long SALT = 0x5C0DE5L;
+
+    /* File of the log. */
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    /* Mapped records, from the first record of the window. */
+    private MappedByteBuffer window;
+    /* Index of the first record of the window. */
+    private long windowStart;
+    /* Number of valid records. */
+    private long size;
+
+    /**
+     * Opens a log, created if missing, empty until {@link #recover(long)}.
+     * @param path the file of the log.
+     * @throws IOException if the file can't be opened or isn't a log.
+     */
+    ScoreLog (File path) throws IOException {
+        file = new RandomAccessFile(path, "rw");
+        channel = file.getChannel();
+        if (file.length() == 0) {
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+        } else if (file.readInt() != MAGIC) {
+            close();
+            throw new IOException("Not a score log: " + path);
+        } else if (file.readInt() != VERSION) {
+            close();
+            throw new IOException("Unsupported score log version: " + path);
+        }
+    }
+
+    /**
+     * Finds the end of the log, the first invalid record, and clears
+     * the records after it.
+     * @param from the number of records known to be valid, where the
+     *             search starts.
+     * @return the number of valid records.
+     * @throws IOException if the file can't be mapped.
+     */
+    long recover (long from) throws IOException {
+        size = from;
+        while (isValid(size)) {
+            size++;
+        }
+        long end = (file.length() - RECORD) / RECORD;
+        for (long i = size + 1; i < end; i++) {
+            if (isValid(i)) {
+                clear(i);
+            }
+        }
+        force();
+        return size;
+    }
+
+    /**
+     * Returns whether the log holds at least a number of records, by
+     * checking the last of them.
+     * @param count the number of records.
+     * @return <code>true</code> if the record before count is valid.
+     * @throws IOException if the file can't be mapped.
+     */
+    boolean contains (long count) throws IOException {
+        return count == 0 || isValid(count - 1);
+    }
+
+    /**
+     * Returns the checksum of a record.
+     * @return the checksum.
+     */
+    private static int checksum (long seed, int time, int tick, int score) {
+        long h = SplitMix.mix(seed ^ SALT);
+        h = SplitMix.mix(h ^ ((long) time << 32 | (tick & 0xFFFFFFFFL)));
+        h = SplitMix.mix(h ^ score);
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Maps the window holding a record.
+     * @param index the index of the record.
+     * @throws IOException if the file can't be mapped.
+     */
+    private void map (long index) throws IOException {
+        if (window != null && index >= windowStart && index < windowStart + WINDOW_RECORDS) {
+            return;
+        }
+        // The appends of the old window reach the disk with the batch.
+        force();
+        windowStart = index - index % WINDOW_RECORDS;
+        window = channel.map(FileChannel.MapMode.READ_WRITE,
+                RECORD + windowStart * RECORD, (long) WINDOW_RECORDS * RECORD);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Returns the offset of a record in its window, mapped.
+     * @param index the index of the record.
+     * @return the offset in the window.
+     * @throws IOException if the file can't be mapped.
+     */
+    private int offsetOf (long index) throws IOException {
+        map(index);
+        return (int) (index - windowStart) * RECORD;
+    }
+
+    /**
+     * Returns whether a record is valid.
+     * @param index the index of the record.
+     * @return <code>false</code> past the end, or for a torn record.
+     * @throws IOException if the file can't be mapped.
+     */
+    private boolean isValid (long index) throws IOException {
+        int offset = offsetOf(index);
+        return window.getInt(offset + 20) == checksum(window.getLong(offset),
+                window.getInt(offset + 8), window.getInt(offset + 12), window.getInt(offset + 16));
+    }
+
+    /**
+     * Clears a record, zeros never being valid.
+     * @param index the index of the record.
+     * @throws IOException if the file can't be mapped.
+     */
+    private void clear (long index) throws IOException {
+        int offset = offsetOf(index);
+        window.putLong(offset, 0);
+        window.putLong(offset + 8, 0);
+        window.putLong(offset + 16, 0);
+    }
+
+    /**
+     * Appends a run, visible to the operating system right away and
+     * kept by a crash of the game, on the disk after {@link #force()}.
+     * @param seed the seed of the course.
+     * @param time the time of the run, in seconds since the epoch.
+     * @param tick the tick the run ended at.
+     * @param score the score.
+     * @throws IOException if the file can't be mapped.
+     */
+    void append (long seed, int time, int tick, int score) throws IOException {
+        int offset = offsetOf(size);
+        window.putLong(offset, seed);
+        window.putInt(offset + 8, time);
+        window.putInt(offset + 12, tick);
+        window.putInt(offset + 16, score);
+        window.putInt(offset + 20, checksum(seed, time, tick, score));
+        size++;
+    }
+
+    /**
+     * Reads the runs of a range of records into top scores.
+     * @param from the first record.
+     * @param to the record after the last one.
+     * @param top the top scores the runs are added to.
+     * @throws IOException if the file can't be mapped.
+     */
+    void read (long from, long to, TopScores top) throws IOException {
+        for (long i = from; i < to; i++) {
+            int offset = offsetOf(i);
+            top.add(window.getInt(offset + 16), window.getInt(offset + 12),
+                    window.getLong(offset), window.getInt(offset + 8));
+        }
+    }
+
+    /**
+     * Writes the mapped window to the disk.
+     */
+    void force () {
+        if (window != null) {
+            window.force();
+        }
+    }
+
+    /**
+     * Returns the number of valid records.
+     * @return the number of runs in the log.
+     */
+    long getSize () {
+        return size;
+    }
+
+    /**
+     * Closes the file. The last window stays mapped until collected.
+     * @throws IOException if the file can't be closed.
+     */
+    void close () throws IOException {
+        window = null;
+        file.close();
+    }
+}
@@ -0,0 +1,157 @@
+package com.jzarco.game.scores;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Class to represent TopScores, the best runs so far, sorted from the
+ * highest score, in primitive arrays of a fixed capacity. A run only
+ * enters if it beats the lowest one, so among equal scores the first
+ * run keeps its place. Not thread-safe.
+ */
+public class TopScores {
+
+    /* Maximum number of runs. */
+    private final int capacity;
+    /* Number of runs. */
+    private int size;
+    /* Score, ticks, seed and time in seconds of every run. */
+    private final int[] scores;
+    private final int[] ticks;
+    private final long[] seeds;
+    private final int[] times;
+
+    /**
+     * Defines the initial state of TopScores, empty.
+     * @param capacity the maximum number of runs.
+     */
+    public TopScores (int capacity) {
+        this.capacity = capacity;
+        scores = new int[capacity];
+        ticks = new int[capacity];
+        seeds = new long[capacity];
+        times = new int[capacity];
+    }
+
+    /**
+     * Adds a run if it is among the best.
+     * @param score the score of the run.
+     * @param tick the tick the run ended at.
+     * @param seed the seed of the course.
+     * @param time the time of the run, in seconds since the epoch.
+     * @return the rank of the run from 0, or -1 if it isn't among the best.
+     */
+    public int add (int score, int tick, long seed, int time) {
+        if (size == capacity && (capacity == 0 || score <= scores[size - 1])) {
+            return -1;
+        }
+        int rank = size;
+        while (rank > 0 && scores[rank - 1] < score) {
+            rank--;
+        }
+        int moved = Math.min(size, capacity - 1) - rank;
+        System.arraycopy(scores, rank, scores, rank + 1, moved);
+        System.arraycopy(ticks, rank, ticks, rank + 1, moved);
+        System.arraycopy(seeds, rank, seeds, rank + 1, moved);
+        System.arraycopy(times, rank, times, rank + 1, moved);
+        scores[rank] = score;
+        ticks[rank] = tick;
+        seeds[rank] = seed;
+        times[rank] = time;
+        if (size < capacity) {
+            size++;
+        }
+        return rank;
+    }
+
+    /**
+     * Removes every run.
+     */
+    public void clear () {
+        size = 0;
+    }
+
+    /**
+     * Writes the runs.
+     * @param out the output.
+     * @throws IOException if the output fails.
+     */
+    void write (DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(scores[i]);
+            out.writeInt(ticks[i]);
+            out.writeLong(seeds[i]);
+            out.writeInt(times[i]);
+        }
+    }
+
+    /**
+     * Replaces the runs with runs written by {@link #write(DataOutput)}.
+     * @param in the input.
+     * @throws IOException if the input fails or is malformed.
+     */
+    void read (DataInput in) throws IOException {
+        clear();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Malformed top scores.");
+        }
+        for (int i = 0; i < count; i++) {
+            add(in.readInt(), in.readInt(), in.readLong(), in.readInt());
+        }
+    }
+
+    /**
+     * Returns the maximum number of runs.
+     * @return the maximum number of runs.
+     */
+    public int getCapacity () {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of runs.
+     * @return the number of runs.
+     */
+    public int getSize () {
+        return size;
+    }
+
+    /**
+     * Returns the score of a run.
+     * @param rank the rank of the run.
+     * @return the score.
+     */
+    public int getScore (int rank) {
+        return scores[rank];
+    }
+
+    /**
+     * Returns the tick a run ended at.
+     * @param rank the rank of the run.
+     * @return the tick.
+     */
+    public int getTick (int rank) {
+        return ticks[rank];
+    }
+
+    /**
+     * Returns the seed of the course of a run.
+     * @param rank the rank of the run.
+     * @return the seed.
+     */
+    public long getSeed (int rank) {
+        return seeds[rank];
+    }
+
+    /**
+     * Returns the time of a run.
+     * @param rank the rank of the run.
+     * @return the time, in seconds since the epoch.
+     */
+    public int getTime (int rank) {
+        return times[rank];
+    }
+}
@@ -0,0 +1,186 @@
+package com.jzarco.game.sim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class to represent a BatchSimulator, which plays many episodes of
+ * the game at once to evaluate a {@link Policy}. The Birds and their
+ * Tube courses are stored as structure of arrays in {@link Lanes} and
+ * stepped in lockstep, split across all cores with fork/join.
+ *
+ * A lane behaves exactly like a {@link Simulation} stepped with the
+ * same decisions.
+ */
+public class BatchSimulator {
+
+    /* Lanes stepped by a single task. */
+    private static final int SLICE = 1024;
+
+    /* Number of Birds. */
+    private final int size;
+    /* Bird and Tubes of every lane. */
+    private final Lanes lanes;
+    /* Finished episodes and their summed score, per Bird. */
+    private final int[] episodes;
+    private final long[] scores;
+    /* Pool the lanes are split across. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Defines the initial state of a BatchSimulator.
+     * @param size the number of Birds playing at once.
+     * @param seed the seed of the Tube courses.
+     */
+    public BatchSimulator (int size, long seed) {
+        this(size, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Defines the initial state of a BatchSimulator.
+     * @param size the number of Birds playing at once.
+     * @param seed the seed of the Tube courses.
+     * @param pool the pool the Birds are split across.
+     */
+    public BatchSimulator (int size, long seed, ForkJoinPool pool) {
+        this.size = size;
+        this.pool = pool;
+        lanes = new Lanes(size);
+        episodes = new int[size];
+        scores = new long[size];
+        for (int i = 0; i < size; i++) {
+            lanes.reset(i, SplitMix.mix(seed + i * SplitMix.GOLDEN_GAMMA));
+        }
+    }
+
+    /**
+     * Plays every Bird for a number of steps. A Bird that hits an
+     * obstacle starts a new episode on the next step.
+     * @param policy the bot deciding the jumps.
+     * @param steps the number of steps of every Bird.
+     * @param dt the delta time of a step.
+     * @return the throughput of the run.
+     */
+    public Result run (Policy policy, int steps, float dt) {
+        int episodesBefore = countEpisodes();
+        long start = System.nanoTime();
+        pool.invoke(new Slice(policy, steps, dt, 0, size));
+        long nanos = System.nanoTime() - start;
+
+        long scoreSum = 0;
+        for (int i = 0; i < size; i++) {
+            scoreSum += scores[i];
+        }
+        return new Result(countEpisodes() - episodesBefore, (long) steps * size, nanos,
+                countEpisodes() == 0 ? 0 : (double) scoreSum / countEpisodes());
+    }
+
+    /**
+     * Returns the number of finished episodes.
+     * @return the number of finished episodes.
+     */
+    private int countEpisodes () {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += episodes[i];
+        }
+        return count;
+    }
+
+    /**
+     * Steps a Bird once, like {@link Simulation#step(float)}.
+     * @param policy the bot deciding the jumps.
+     * @param i the Bird.
+     * @param dt the delta time.
+     */
+    private void step (Policy policy, int i, float dt) {
+        // Next Tube in front of the Bird, for the Policy.
+        boolean jump = policy.jump(lanes.getY(i), lanes.getVelocityY(i), lanes.getTubeDx(i), lanes.getGapY(i));
+        if (lanes.step(i, jump, dt)) {
+            episodes[i]++;
+            scores[i] += lanes.getScore(i);
+            lanes.reset(i);
+        }
+    }
+
+    /**
+     * Class to represent the task stepping a range of Birds.
+     */
+    private class Slice extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Policy policy;
+        private final int steps;
+        private final float dt;
+        private final int from;
+        private final int to;
+
+        Slice (Policy policy, int steps, float dt, int from, int to) {
+            this.policy = policy;
+            this.steps = steps;
+            this.dt = dt;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute () {
+            if (to - from > SLICE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Slice(policy, steps, dt, from, middle),
+                        new Slice(policy, steps, dt, middle, to));
+                return;
+            }
+            for (int s = 0; s < steps; s++) {
+                for (int i = from; i < to; i++) {
+                    step(policy, i, dt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Class to represent the throughput of a run.
+     */
+    public static class Result {
+
+        /* Episodes finished during the run. */
+        public final int episodes;
+        /* Steps of all the Birds. */
+        public final long ticks;
+        /* Duration of the run. */
+        public final long nanos;
+        /* Mean score of every episode finished so far. */
+        public final double meanScore;
+
+        Result (int episodes, long ticks, long nanos, double meanScore) {
+            this.episodes = episodes;
+            this.ticks = ticks;
+            this.nanos = nanos;
+            this.meanScore = meanScore;
+        }
+
+        /**
+         * Returns the episodes finished per second.
+         * @return the episodes finished per second.
+         */
+        public double getEpisodesPerSecond () {
+            return episodes * 1e9 / nanos;
+        }
+
+        /**
+         * Returns the steps simulated per second.
+         * @return the steps simulated per second.
+         */
+        public double getTicksPerSecond () {
+            return ticks * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString () {
+            return String.format("%d episodes, %d ticks in %.3f s: %.0f episodes/s, %.0f ticks/s, mean score %.2f",
+                    episodes, ticks, nanos / 1e9, getEpisodesPerSecond(), getTicksPerSecond(), meanScore);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class to represent the physics of a Bird. A BirdBody has a
+ * position, a previous position and a vertical velocity, and
+ * doesn't depend on graphics or audio.
+ */
+public class BirdBody {
+
+    /* Width of the Bird, one frame of its animation. */
+    public static final int WIDTH = 34;
+    /* Height of the Bird. */
+    public static final int HEIGHT = 24;
+    /* Gravity of the Bird, in pixels per second squared
+    (-15 per step at 60 steps per second). */
+    public static final int GRAVITY = -900;
+    /* Horizontal movement of the Bird, in pixels per second. */
+    public static final int MOVEMENT = 100;
+    /* Vertical velocity after a jump, in pixels per second. */
+    public static final int JUMP_VELOCITY = 250;
+
+    /* Position of the Bird. */
+    private float x;
+    private float y;
+    /* Position of the Bird before the last step. */
+    private float prevX;
+    private float prevY;
+    /* Vertical velocity of the Bird. */
+    private float velocityY;
+
+    /**
+     * Defines the initial state of a BirdBody.
+     * @param x the coordinate on the x-axis of the Bird.
+     * @param y the coordinate on the y-axis of the Bird.
+     */
+    public BirdBody (float x, float y) {
+        reset(x, y);
+    }
+
+    /**
+     * Places the Bird at rest.
+     * @param x the coordinate on the x-axis of the Bird.
+     * @param y the coordinate on the y-axis of the Bird.
+     */
+    public void reset (float x, float y) {
+        this.x = prevX = x;
+        this.y = prevY = y;
+        velocityY = 0;
+    }
+
+    /**
+     * Bird logic.
+     * Moves the Bird, doing the maths.
+     * @param dt the delta time.
+     */
+    public void step (float dt) {
+        prevX = x;
+        prevY = y;
+
+        velocityY = accelerate(y, velocityY, dt);
+        x += MOVEMENT * dt;
+        y = move(y, velocityY, dt);
+    }
+
+    /**
+     * Returns the vertical velocity after a step. Shared with
+     * {@link BatchSimulator} so both have the same physics.
+     * @param y the coordinate on the y-axis before the step.
+     * @param velocityY the vertical velocity before the step.
+     * @param dt the delta time.
+     * @return the vertical velocity after the step.
+     */
+    static float accelerate (float y, float velocityY, float dt) {
+        if (y > 0) {
+            // Add the gravity component to the velocity.
+            return velocityY + GRAVITY * dt;
+        }
+        return velocityY;
+    }
+
+    /**
+     * Returns the coordinate on the y-axis after a step.
+     * @param y the coordinate on the y-axis before the step.
+     * @param velocityY the vertical velocity after the step.
+     * @param dt the delta time.
+     * @return the coordinate on the y-axis after the step.
+     */
+    static float move (float y, float velocityY, float dt) {
+        // Update the position, proportional to time.
+        y += velocityY * dt;
+        // Can't go down further than the bottom screen.
+        return y < 0 ? 0 : y;
+    }
+
+    /**
+     * Moves the Bird back along its last step, to where it hit an
+     * obstacle.
+     * @param t the time of the impact, from 0 at the start of the
+     *          step to 1 at the end.
+     */
+    void stopAt (float t) {
+        x = prevX + (x - prevX) * t;
+        y = prevY + (y - prevY) * t;
+    }
+
+    /**
+     * Hop up the Bird in the y-axis.
+     */
+    public void jump () {
+        velocityY = JUMP_VELOCITY;
+    }
+
+    /**
+     * Returns the coordinate on the x-axis of the Bird.
+     * @return the coordinate on the x-axis of the Bird.
+     */
+    public float getX () {
+        return x;
+    }
+
+    /**
+     * Returns the coordinate on the y-axis of the Bird.
+     * @return the coordinate on the y-axis of the Bird.
+     */
+    public float getY () {
+        return y;
+    }
+
+    /**
+     * Returns the coordinate on the x-axis before the last step.
+     * @return the coordinate on the x-axis before the last step.
+     */
+    public float getPrevX () {
+        return prevX;
+    }
+
+    /**
+     * Returns the coordinate on the y-axis before the last step.
+     * @return the coordinate on the y-axis before the last step.
+     */
+    public float getPrevY () {
+        return prevY;
+    }
+
+    /**
+     * Returns the vertical velocity of the Bird.
+     * @return the vertical velocity of the Bird.
+     */
+    public float getVelocityY () {
+        return velocityY;
+    }
+}
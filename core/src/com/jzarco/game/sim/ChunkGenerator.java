@@ -0,0 +1,201 @@
+package com.jzarco.game.sim;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class to represent a ChunkGenerator, which generates the next
+ * chunks of a course on its own thread, ahead of the game, and hands
+ * them to the {@link ObstacleStream} of the game thread.
+ *
+ * Chunks go through a bounded single-producer, single-consumer ring
+ * of preallocated buffers: only the generator moves the tail and only
+ * the stream moves the head, so neither side locks nor allocates. The
+ * stream copies a chunk out of its slot and frees the slot for the
+ * next one.
+ *
+ * Every course the stream asks for starts a new epoch, and a chunk is
+ * tagged with its epoch, seed and index, so chunks generated for an
+ * earlier course are dropped, even one of the same seed. When the
+ * generator is behind, the stream generates the chunk itself, so the
+ * course is the same whatever the timing.
+ */
+public class ChunkGenerator implements Runnable {
+
+    /* Chunks generated ahead, a power of two. */
+    public static final int CAPACITY = 8;
+    private static final int MASK = CAPACITY - 1;
+
+    /* Openings of the chunks of the ring, and their epoch, seed and
+    index, written by the generator before it publishes them. */
+    private final int[][] openings;
+    private final int[] epochs;
+    private final long[] seeds;
+    private final long[] chunks;
+    /* Next chunk to take, only moved by the stream, and next chunk to
+    publish, only moved by the generator. */
+    private final AtomicLong head;
+    private final AtomicLong tail;
+    /* Course requested by the stream: seed and first chunk, written
+    before the epoch is incremented. */
+    private volatile long requestSeed;
+    private volatile long requestChunk;
+    private volatile int epoch;
+    /* Chunks taken from the ring, and generated by the stream instead.
+    Only used by the thread of the stream. */
+    private long hits;
+    private long misses;
+    /* Thread of the generator. */
+    private final Thread thread;
+    /* Whether the generator keeps running. */
+    private volatile boolean running;
+
+    /**
+     * Defines the initial state of a ChunkGenerator, not started yet.
+     */
+    public ChunkGenerator () {
+        openings = new int[CAPACITY][ObstacleStream.BATCH];
+        epochs = new int[CAPACITY];
+        seeds = new long[CAPACITY];
+        chunks = new long[CAPACITY];
+        head = new AtomicLong();
+        tail = new AtomicLong();
+        thread = new Thread(this, "chunk-generator");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the thread of the generator.
+     */
+    public void start () {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the thread of the generator and waits for it.
+     */
+    public void stop () {
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Generates chunks while the ring isn't full, and sleeps until a
+     * chunk is taken or a course requested.
+     */
+    @Override
+    public void run () {
+        // Nothing is generated before the first request.
+        int current = 0;
+        long seed = 0;
+        long chunk = 0;
+        while (running) {
+            int requested = epoch;
+            if (requested != current) {
+                current = requested;
+                seed = requestSeed;
+                chunk = requestChunk;
+            }
+            long t = tail.get();
+            if (current == 0 || t - head.get() >= CAPACITY) {
+                LockSupport.park(this);
+                continue;
+            }
+            int slot = (int) t & MASK;
+            ObstacleStream.generate(seed, chunk, openings[slot]);
+            epochs[slot] = current;
+            seeds[slot] = seed;
+            chunks[slot] = chunk;
+            chunk++;
+            // Publishes the chunk to the stream.
+            tail.lazySet(t + 1);
+        }
+    }
+
+    /**
+     * Starts generating a course, dropping the chunks generated for
+     * the previous one. Only called from the thread of the stream.
+     * @param seed the seed of the course.
+     * @param chunk the first chunk to generate.
+     */
+    void request (long seed, long chunk) {
+        requestSeed = seed;
+        requestChunk = chunk;
+        // Publishes the request to the generator.
+        epoch++;
+        // Frees the slots published so far, a chunk being generated for
+        // the previous epoch is dropped by poll.
+        head.lazySet(tail.get());
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Takes a chunk of the current course if it was generated, dropping
+     * the chunks before it. Only called from the thread of the stream.
+     * @param seed the seed of the course.
+     * @param chunk the index of the chunk.
+     * @param out the openings of the chunk.
+     * @return <code>true</code> if the chunk was copied to out,
+     *          <code>false</code> if it isn't ready.
+     */
+    boolean poll (long seed, long chunk, int[] out) {
+        int current = epoch;
+        long h = head.get();
+        long t = tail.get();
+        boolean found = false;
+        while (h < t) {
+            int slot = (int) h & MASK;
+            boolean course = epochs[slot] == current && seeds[slot] == seed;
+            if (course && chunks[slot] > chunk) {
+                // Ahead, kept for the next polls.
+                break;
+            }
+            if (course && chunks[slot] == chunk) {
+                System.arraycopy(openings[slot], 0, out, 0, ObstacleStream.BATCH);
+                found = true;
+            }
+            h++;
+            if (found) {
+                break;
+            }
+        }
+        // Frees the slots taken or dropped for the generator.
+        head.lazySet(h);
+        LockSupport.unpark(thread);
+        if (found) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of chunks taken from the generator.
+     * @return the number of chunks generated ahead.
+     */
+    public long getHits () {
+        return hits;
+    }
+
+    /**
+     * Returns the number of chunks the stream generated itself
+     * because the generator was behind.
+     * @return the number of chunks generated in place.
+     */
+    public long getMisses () {
+        return misses;
+    }
+}
@@ -0,0 +1,111 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class to represent an Env, a training environment over a
+ * {@link Simulation} for agents learning to play. Every step the
+ * agent flaps or not, and gets an observation, a reward and whether
+ * the game is over.
+ *
+ * The observation is {@link #OBSERVATION_SIZE} floats: the height
+ * and vertical velocity of the Bird, the distance to the next Tube
+ * and the top of its opening, like a {@link Policy} sees the game.
+ * It is written into the same array every step, nothing is allocated.
+ * Every step lasts {@link Simulation#STEP}, like in the game.
+ */
+public class Env {
+
+    /* Floats of an observation. */
+    public static final int OBSERVATION_SIZE = 4;
+    /* Reward of a step the Bird survived. */
+    public static final float ALIVE_REWARD = 0.01f;
+    /* Reward of a Tube passed. */
+    public static final float PASS_REWARD = 1;
+    /* Reward of the step the Bird hit an obstacle. */
+    public static final float CRASH_REWARD = -1;
+
+    /* Rules of the game. */
+    private final Simulation sim;
+    /* Last observation. */
+    private final float[] observation;
+
+    /**
+     * Defines the initial state of an Env, on a given course.
+     * @param seed the seed of the course.
+     */
+    public Env (long seed) {
+        sim = new Simulation(Simulation.TUBE_COUNT, seed);
+        observation = new float[OBSERVATION_SIZE];
+        observe();
+    }
+
+    /**
+     * Starts a new game on a given course.
+     * @param seed the seed of the course.
+     * @return the first observation, see {@link #getObservation()}.
+     */
+    public float[] reset (long seed) {
+        sim.reset(seed);
+        observe();
+        return observation;
+    }
+
+    /**
+     * Steps the game once. Once it is over, it must be reset.
+     * @param flap whether the Bird jumps.
+     * @return the reward of the step.
+     * @throws IllegalStateException if the game is over.
+     */
+    public float step (boolean flap) {
+        if (sim.isOver()) {
+            throw new IllegalStateException("The game is over, reset it first.");
+        }
+        int score = sim.getScore();
+        if (flap) {
+            sim.jump();
+        }
+        sim.step(Simulation.STEP);
+        observe();
+        if (sim.isOver()) {
+            return CRASH_REWARD;
+        }
+        return ALIVE_REWARD + (sim.getScore() - score) * PASS_REWARD;
+    }
+
+    /**
+     * Writes the observation of the current step.
+     */
+    private void observe () {
+        BirdBody bird = sim.getBird();
+        TubeBody tube = sim.getNextTube();
+        observation[0] = bird.getY();
+        observation[1] = bird.getVelocityY();
+        observation[2] = tube.getX() - bird.getX();
+        observation[3] = tube.getTopY();
+    }
+
+    /**
+     * Returns the observation of the current step, overwritten by the
+     * next step.
+     * @return the height and vertical velocity of the Bird, the
+     *         distance to the next Tube and the top of its opening.
+     */
+    public float[] getObservation () {
+        return observation;
+    }
+
+    /**
+     * Returns whether the game is over.
+     * @return <code>true</code> if the Bird hit an obstacle.
+     */
+    public boolean isDone () {
+        return sim.isOver();
+    }
+
+    /**
+     * Returns the number of Tubes passed in the current game.
+     * @return the score.
+     */
+    public int getScore () {
+        return sim.getScore();
+    }
+}
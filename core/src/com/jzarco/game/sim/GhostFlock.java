@@ -0,0 +1,215 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class to represent a GhostFlock, many Birds flying the course of a
+ * {@link Simulation} next to the player without touching it. A ghost
+ * either plays the jumps of a previous run on the same course or
+ * is a bot jumping at its own height above the next opening.
+ *
+ * Every Bird moves forward at the same speed, so the ghosts share the
+ * coordinate on the x-axis of the player and only their height and
+ * vertical velocity are stored, in flat arrays.
+ */
+public class GhostFlock {
+
+    /* Maximum number of ghosts. */
+    private final int capacity;
+    /* Number of ghosts. */
+    private int size;
+    /* Number of ghosts that didn't hit an obstacle yet. */
+    private int aliveCount;
+    /* Height, height before the last step and vertical velocity
+    of every ghost. */
+    private final float[] y;
+    private final float[] prevY;
+    private final float[] velocityY;
+    /* Whether every ghost didn't hit an obstacle yet. */
+    private final boolean[] alive;
+    /* Height above the bottom of the next opening under which a bot
+    jumps, or NaN if the ghost plays a previous run. */
+    private final float[] margin;
+    /* Jumps of every run ghost, a range of the jumps buffer, and the
+    next one to play. */
+    private final int[] jumpStart;
+    private final int[] jumpEnd;
+    private final int[] cursor;
+    /* Ticks of the jumps of every run ghost, one after the other. */
+    private int[] jumps;
+    /* Number of ticks in the jumps buffer. */
+    private int jumpsSize;
+
+    /**
+     * Defines the initial state of a GhostFlock.
+     * @param capacity the maximum number of ghosts.
+     */
+    public GhostFlock (int capacity) {
+        this.capacity = capacity;
+        y = new float[capacity];
+        prevY = new float[capacity];
+        velocityY = new float[capacity];
+        alive = new boolean[capacity];
+        margin = new float[capacity];
+        jumpStart = new int[capacity];
+        jumpEnd = new int[capacity];
+        cursor = new int[capacity];
+        jumps = new int[1024];
+    }
+
+    /**
+     * Removes every ghost.
+     */
+    public void clear () {
+        size = 0;
+        aliveCount = 0;
+        jumpsSize = 0;
+    }
+
+    /**
+     * Adds a bot.
+     * @param margin the height above the bottom of the next opening
+     *               under which the bot jumps.
+     * @return <code>false</code> if the flock is full.
+     */
+    public boolean addBot (float margin) {
+        if (size == capacity) {
+            return false;
+        }
+        this.margin[size] = margin;
+        jumpStart[size] = jumpEnd[size] = 0;
+        start(size++);
+        return true;
+    }
+
+    /**
+     * Adds a ghost playing the jumps of a previous run. The run must
+     * have been played on the course of the Simulation the flock flies.
+     * @param ticks the ticks of the jumps, in order, copied.
+     * @param count the number of jumps.
+     * @return <code>false</code> if the flock is full.
+     */
+    public boolean addReplay (int[] ticks, int count) {
+        if (size == capacity) {
+            return false;
+        }
+        if (jumpsSize + count > jumps.length) {
+            int[] grown = new int[Math.max(jumps.length * 2, jumpsSize + count)];
+            System.arraycopy(jumps, 0, grown, 0, jumpsSize);
+            jumps = grown;
+        }
+        System.arraycopy(ticks, 0, jumps, jumpsSize, count);
+        margin[size] = Float.NaN;
+        jumpStart[size] = jumpsSize;
+        jumpEnd[size] = jumpsSize + count;
+        jumpsSize += count;
+        start(size++);
+        return true;
+    }
+
+    /**
+     * Places a ghost at the start.
+     * @param i the ghost.
+     */
+    private void start (int i) {
+        y[i] = prevY[i] = Simulation.BIRD_Y;
+        velocityY[i] = 0;
+        cursor[i] = jumpStart[i];
+        alive[i] = true;
+        aliveCount++;
+    }
+
+    /**
+     * Places every ghost at the start, for a new game.
+     */
+    public void reset () {
+        aliveCount = 0;
+        for (int i = 0; i < size; i++) {
+            start(i);
+        }
+    }
+
+    /**
+     * Steps every ghost, right after the Simulation was stepped, so
+     * a run ghost sees the course like the recorded Bird did.
+     * @param sim the Simulation flown by the ghosts.
+     * @param dt the delta time.
+     */
+    public void step (Simulation sim, float dt) {
+        int tick = sim.getTick() - 1;
+        float prevX = sim.getBird().getPrevX();
+        float x = sim.getBird().getX();
+        float openingY = TubeBody.bottomOf(sim.getNextTube().getTopY()) + TubeBody.HEIGHT;
+
+        for (int i = 0; i < size; i++) {
+            if (!alive[i]) {
+                continue;
+            }
+            float birdY = y[i];
+            float vy = velocityY[i];
+
+            float m = margin[i];
+            if (!Float.isNaN(m)) {
+                if (vy <= 0 && birdY < openingY + m) {
+                    vy = BirdBody.JUMP_VELOCITY;
+                }
+            } else if (cursor[i] < jumpEnd[i] && jumps[cursor[i]] <= tick) {
+                vy = BirdBody.JUMP_VELOCITY;
+                cursor[i]++;
+            }
+
+            vy = BirdBody.accelerate(birdY, vy, dt);
+            prevY[i] = birdY;
+            birdY = BirdBody.move(birdY, vy, dt);
+            y[i] = birdY;
+            velocityY[i] = vy;
+
+            if (Simulation.groundImpact(prevY[i], birdY) != TubeBody.NO_IMPACT
+                    || sim.sweep(prevX, prevY[i], x, birdY, BirdBody.WIDTH, BirdBody.HEIGHT) != TubeBody.NO_IMPACT) {
+                alive[i] = false;
+                aliveCount--;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of ghosts.
+     * @return the number of ghosts.
+     */
+    public int getSize () {
+        return size;
+    }
+
+    /**
+     * Returns the number of ghosts still flying.
+     * @return the number of ghosts still flying.
+     */
+    public int getAliveCount () {
+        return aliveCount;
+    }
+
+    /**
+     * Returns whether a ghost is still flying.
+     * @param i the ghost.
+     * @return <code>true</code> if it didn't hit an obstacle yet.
+     */
+    public boolean isAlive (int i) {
+        return alive[i];
+    }
+
+    /**
+     * Returns the height of a ghost.
+     * @param i the ghost.
+     * @return the coordinate on the y-axis of the ghost.
+     */
+    public float getY (int i) {
+        return y[i];
+    }
+
+    /**
+     * Returns the height of a ghost before the last step.
+     * @param i the ghost.
+     * @return the coordinate on the y-axis before the last step.
+     */
+    public float getPrevY (int i) {
+        return prevY[i];
+    }
+}
@@ -0,0 +1,228 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class to represent Lanes, many games of the rules of
+ * {@link Simulation} stored as structure of arrays, one Bird and its
+ * Tubes per lane, for the batched runs of {@link BatchSimulator} and
+ * {@link VecEnv}.
+ *
+ * The rules are built on the same {@link BirdBody} and
+ * {@link TubeBody} functions, and a lane draws its course like an
+ * {@link ObstacleStream}, so a lane seeded like a Simulation behaves
+ * exactly like it when stepped with the same jumps. Lanes are
+ * independent, so different lanes can be stepped from different
+ * threads.
+ */
+final class Lanes {
+
+    /* Tubes of every lane. */
+    static final int TUBES = Simulation.TUBE_COUNT;
+
+    /* Number of lanes. */
+    private final int size;
+    /* Position and vertical velocity of every Bird. */
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityY;
+    /* Score of the current game of every lane. */
+    private final int[] score;
+    /* Tubes of every lane, TUBES in a row per lane, each a ring
+    ordered by position on the x-axis like in Simulation. */
+    private final float[] tubeX;
+    private final float[] tubeTopY;
+    /* Leftmost Tube and first Tube not passed yet, per lane. */
+    private final int[] head;
+    private final int[] nextToPass;
+    /* Random generator state of every lane. */
+    private final long[] rng;
+
+    /**
+     * Defines the initial state of Lanes, not started yet.
+     * @param size the number of lanes.
+     */
+    Lanes (int size) {
+        this.size = size;
+        x = new float[size];
+        y = new float[size];
+        velocityY = new float[size];
+        score = new int[size];
+        tubeX = new float[size * TUBES];
+        tubeTopY = new float[size * TUBES];
+        head = new int[size];
+        nextToPass = new int[size];
+        rng = new long[size];
+    }
+
+    /**
+     * Starts a new game on a given course, like
+     * {@link Simulation#reset(long)}.
+     * @param i the lane.
+     * @param seed the seed of the course.
+     */
+    void reset (int i, long seed) {
+        rng[i] = seed;
+        reset(i);
+    }
+
+    /**
+     * Starts a new game on the next course of the random generator
+     * of the lane.
+     * @param i the lane.
+     */
+    void reset (int i) {
+        x[i] = Simulation.BIRD_X;
+        y[i] = Simulation.BIRD_Y;
+        velocityY[i] = 0;
+        score[i] = 0;
+        for (int t = 0; t < TUBES; t++) {
+            int tube = i * TUBES + t;
+            tubeX[tube] = (t + 1) * (Simulation.TUBE_SPACING + TubeBody.WIDTH);
+            tubeTopY[tube] = nextOpening(i);
+        }
+        head[i] = 0;
+        nextToPass[i] = 0;
+    }
+
+    /**
+     * Generates the y coordinate of the next top Tube of a lane.
+     * @param i the lane.
+     * @return the y coordinate of the next top Tube.
+     */
+    private int nextOpening (int i) {
+        rng[i] += SplitMix.GOLDEN_GAMMA;
+        return SplitMix.nextInt(rng[i], TubeBody.FLUCTUATION) + TubeBody.GAP + TubeBody.LOWEST_OPENING;
+    }
+
+    /**
+     * Steps a lane once, like {@link Simulation#step(float)}, in moves
+     * of at most {@link Simulation#MAX_MOVE} seconds.
+     * @param i the lane.
+     * @param jump whether the Bird jumps before the step.
+     * @param dt the delta time.
+     * @return <code>true</code> if the Bird hit an obstacle.
+     */
+    boolean step (int i, boolean jump, float dt) {
+        int moves = dt > Simulation.MAX_MOVE ? (int) Math.ceil(dt / Simulation.MAX_MOVE) : 1;
+        float moveDt = moves == 1 ? dt : dt / moves;
+        boolean over = move(i, jump, moveDt);
+        for (int m = 1; m < moves && !over; m++) {
+            over = move(i, false, moveDt);
+        }
+        return over;
+    }
+
+    /**
+     * Moves a lane, like Simulation does.
+     * @param i the lane.
+     * @param jump whether the Bird jumps before the move.
+     * @param dt the delta time, at most {@link Simulation#MAX_MOVE}.
+     * @return <code>true</code> if the Bird hit an obstacle.
+     */
+    private boolean move (int i, boolean jump, float dt) {
+        int first = i * TUBES;
+
+        // Bird.
+        float x0 = x[i];
+        float y0 = y[i];
+        float vy = jump ? BirdBody.JUMP_VELOCITY : velocityY[i];
+        vy = BirdBody.accelerate(y0, vy, dt);
+        float birdX = x0 + BirdBody.MOVEMENT * dt;
+        float birdY = BirdBody.move(y0, vy, dt);
+
+        // Tubes around the move, then the ground.
+        float impact = Simulation.groundImpact(y0, birdY);
+        int h = head[i];
+        float right = birdX + BirdBody.WIDTH;
+        for (int n = 0, t = h; n < TUBES; n++, t = t + 1 == TUBES ? 0 : t + 1) {
+            int tube = first + t;
+            if (tubeX[tube] >= right) {
+                break;
+            }
+            if (tubeX[tube] + TubeBody.WIDTH > x0) {
+                float topY = tubeTopY[tube];
+                impact = Math.min(impact, TubeBody.sweep(tubeX[tube], topY, TubeBody.bottomOf(topY),
+                        x0, y0, birdX, birdY, BirdBody.WIDTH, BirdBody.HEIGHT));
+            }
+        }
+        boolean over = impact != TubeBody.NO_IMPACT;
+        if (over) {
+            // Stops where the Bird hit, like BirdBody.stopAt.
+            birdX = x0 + (birdX - x0) * impact;
+            birdY = y0 + (birdY - y0) * impact;
+        }
+        x[i] = birdX;
+        y[i] = birdY;
+        velocityY[i] = vy;
+
+        int pass = nextToPass[i];
+        while (birdX > tubeX[first + pass] + TubeBody.WIDTH) {
+            score[i]++;
+            pass = pass + 1 == TUBES ? 0 : pass + 1;
+        }
+        nextToPass[i] = pass;
+
+        // Recycles the leftmost Tubes.
+        float leftSide = birdX + Simulation.CAMERA_OFFSET - Simulation.VIEW_WIDTH / 2f;
+        while (leftSide > tubeX[first + h] + TubeBody.WIDTH) {
+            int last = h == 0 ? TUBES - 1 : h - 1;
+            tubeX[first + h] = tubeX[first + last] + TubeBody.WIDTH + Simulation.TUBE_SPACING;
+            tubeTopY[first + h] = nextOpening(i);
+            h = h + 1 == TUBES ? 0 : h + 1;
+        }
+        head[i] = h;
+        return over;
+    }
+
+    /**
+     * Returns the number of lanes.
+     * @return the number of lanes.
+     */
+    int getSize () {
+        return size;
+    }
+
+    /**
+     * Returns the height of the Bird of a lane.
+     * @param i the lane.
+     * @return the coordinate on the y-axis of the Bird.
+     */
+    float getY (int i) {
+        return y[i];
+    }
+
+    /**
+     * Returns the vertical velocity of the Bird of a lane.
+     * @param i the lane.
+     * @return the vertical velocity of the Bird.
+     */
+    float getVelocityY (int i) {
+        return velocityY[i];
+    }
+
+    /**
+     * Returns the distance from the Bird of a lane to its next Tube.
+     * @param i the lane.
+     * @return the distance on the x-axis to the next Tube.
+     */
+    float getTubeDx (int i) {
+        return tubeX[i * TUBES + nextToPass[i]] - x[i];
+    }
+
+    /**
+     * Returns the top of the opening of the next Tube of a lane.
+     * @param i the lane.
+     * @return the coordinate on the y-axis of the top of the opening.
+     */
+    float getGapY (int i) {
+        return tubeTopY[i * TUBES + nextToPass[i]];
+    }
+
+    /**
+     * Returns the score of the current game of a lane.
+     * @param i the lane.
+     * @return the number of Tubes passed.
+     */
+    int getScore (int i) {
+        return score[i];
+    }
+}
@@ -0,0 +1,112 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class to represent an ObstacleStream, the course of Tube openings
+ * of a single game. Each Simulation owns its own, so games running
+ * side by side share nothing and each course only depends on its seed.
+ *
+ * Openings are drawn from a SplitMix64 state and generated ahead in
+ * chunks into a primitive buffer, the Tubes read from it when they
+ * are repositioned. A chunk only depends on the seed and its index,
+ * so it can be generated ahead by a {@link ChunkGenerator} on another
+ * thread, and the stream generates it itself when the generator
+ * doesn't have it yet.
+ */
+public class ObstacleStream {
+
+    /* Openings generated at once. */
+    public static final int BATCH = 64;
+
+    /* Openings generated ahead. */
+    private final int[] openings;
+    /* Next opening to read. */
+    private int next;
+    /* Seed of the course. */
+    private long seed;
+    /* Index of the chunk in the buffer. */
+    private long chunk;
+    /* Generates the next chunks ahead, or null. */
+    private ChunkGenerator generator;
+
+    /**
+     * Defines the initial state of an ObstacleStream.
+     * @param seed the seed of the course.
+     */
+    public ObstacleStream (long seed) {
+        openings = new int[BATCH];
+        reset(seed);
+    }
+
+    /**
+     * Starts the course of a seed again.
+     * @param seed the seed of the course.
+     */
+    public void reset (long seed) {
+        this.seed = seed;
+        chunk = 0;
+        if (generator != null) {
+            // The first chunk is needed now, the generator starts after.
+            generator.request(seed, 1);
+        }
+        generate(seed, 0, openings);
+        next = 0;
+    }
+
+    /**
+     * Sets the generator of the next chunks.
+     * @param generator the generator, or <code>null</code> to
+     *                  generate every chunk in place.
+     */
+    public void setGenerator (ChunkGenerator generator) {
+        this.generator = generator;
+        if (generator != null) {
+            generator.request(seed, chunk + 1);
+        }
+    }
+
+    /**
+     * Generates the openings of a chunk. The state of the opening i
+     * of a course is the seed plus i + 1 times the golden gamma, as if
+     * the openings were drawn one after the other.
+     * @param seed the seed of the course.
+     * @param chunk the index of the chunk.
+     * @param openings the openings of the chunk, {@link #BATCH} of them.
+     */
+    static void generate (long seed, long chunk, int[] openings) {
+        long state = seed + chunk * BATCH * SplitMix.GOLDEN_GAMMA;
+        for (int i = 0; i < BATCH; i++) {
+            state += SplitMix.GOLDEN_GAMMA;
+            openings[i] = SplitMix.nextInt(state, TubeBody.FLUCTUATION) + TubeBody.GAP + TubeBody.LOWEST_OPENING;
+        }
+    }
+
+    /**
+     * Moves to the next chunk, taken from the generator if it is ready.
+     */
+    private void fill () {
+        chunk++;
+        if (generator == null || !generator.poll(seed, chunk, openings)) {
+            generate(seed, chunk, openings);
+        }
+        next = 0;
+    }
+
+    /**
+     * Returns the y coordinate of the next top Tube.
+     * @return the y coordinate of the next top Tube.
+     */
+    public int next () {
+        if (next == BATCH) {
+            fill();
+        }
+        return openings[next++];
+    }
+
+    /**
+     * Returns the seed of the course.
+     * @return the seed of the course.
+     */
+    public long getSeed () {
+        return seed;
+    }
+}
@@ -0,0 +1,20 @@
+package com.jzarco.game.sim;
+
+/**
+ * Interface to represent a bot that decides when a Bird jumps.
+ * Implementations are called from several threads at once by
+ * {@link BatchSimulator}, so they must not keep mutable state.
+ */
+public interface Policy {
+
+    /**
+     * Decides whether the Bird jumps this step.
+     * @param birdY the coordinate on the y-axis of the Bird.
+     * @param velocityY the vertical velocity of the Bird.
+     * @param tubeDx distance from the Bird to the next Tube.
+     * @param gapY the coordinate on the y-axis of the top of the
+     *             opening of the next Tube.
+     * @return <code>true</code> to jump, <code>false</code> otherwise.
+     */
+    boolean jump (float birdY, float velocityY, float tubeDx, float gapY);
+}
@@ -0,0 +1,355 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class to represent the rules of the game without graphics or
+ * audio. A Simulation has a Bird, a course of Tubes, the ground and
+ * a score, and can run headless at any speed.
+ *
+ * The course only depends on a seed, so a game is reproduced by the
+ * same seed and the same jumps at the same ticks.
+ */
+public class Simulation {
+
+    /* Duration of one step of the game, 60 steps per second, the
+    step the game is played, recorded and validated with. */
+    public static final float STEP = 1 / 60f;
+    /* Space between tubes, including one of the Tubes themselves. */
+    public static final int TUBE_SPACING = 125;
+    /* Total number of Tubes. */
+    public static final int TUBE_COUNT = 4;
+    /* Height of the ground. */
+    public static final int GROUND_HEIGHT = 112;
+    /* Ground y offset. */
+    public static final int GROUND_Y_OFFSET = -50;
+    /* Width of the visible world, half of the screen. */
+    public static final int VIEW_WIDTH = 240;
+    /* Camera in front of the Bird. */
+    public static final int CAMERA_OFFSET = 80;
+    /* Starting position of the Bird. */
+    public static final int BIRD_X = 50;
+    public static final int BIRD_Y = 300;
+    /* Longest move simulated at once: the Bird moves less than the
+    space between two Tubes, so it passes one Tube at most. */
+    public static final float MAX_MOVE = (float) TUBE_SPACING / BirdBody.MOVEMENT;
+
+    /* Bird of the Simulation. */
+    private final BirdBody bird;
+    /* Current game Tubes of the Simulation, a ring ordered by
+    position on the x-axis starting at head. */
+    private final TubeBody[] tubes;
+    /* Index of the leftmost Tube. */
+    private int head;
+    /* Index of the first Tube the Bird didn't pass yet. */
+    private int nextToPass;
+    /* Number of steps simulated. */
+    private int tick;
+    /* Number of Tubes passed. */
+    private int score;
+    /* Whether the Bird hit an obstacle. */
+    private boolean over;
+    /* Openings of the Tubes of the current game. */
+    private final ObstacleStream obstacles;
+
+    /**
+     * Defines the initial state of a Simulation.
+     */
+    public Simulation () {
+        this(TUBE_COUNT);
+    }
+
+    /**
+     * Defines the initial state of a Simulation with more or less
+     * Tubes, for wider views. The cost of a step doesn't depend on it.
+     * @param tubeCount the number of Tubes.
+     */
+    public Simulation (int tubeCount) {
+        this(tubeCount, randomSeed());
+    }
+
+    /**
+     * Defines the initial state of a Simulation with a given course.
+     * @param tubeCount the number of Tubes.
+     * @param seed the seed of the course.
+     */
+    public Simulation (int tubeCount, long seed) {
+        obstacles = new ObstacleStream(seed);
+        bird = new BirdBody(BIRD_X, BIRD_Y);
+        tubes = new TubeBody[tubeCount];
+        for (int i = 0; i < tubeCount; i++) {
+            tubes[i] = new TubeBody(getStartX(i), obstacles.next());
+        }
+    }
+
+    /**
+     * Returns a seed for a new course.
+     * @return a seed for a new course.
+     */
+    private static long randomSeed () {
+        return SplitMix.mix(System.nanoTime());
+    }
+
+    /**
+     * Starts a new game on a new course, reusing the Bird and the Tubes.
+     */
+    public void reset () {
+        reset(randomSeed());
+    }
+
+    /**
+     * Starts a new game on a given course, reusing the Bird and the Tubes.
+     * @param seed the seed of the course.
+     */
+    public void reset (long seed) {
+        obstacles.reset(seed);
+        bird.reset(BIRD_X, BIRD_Y);
+        for (int i = 0; i < tubes.length; i++) {
+            tubes[i].reposition(getStartX(i), obstacles.next());
+        }
+        head = 0;
+        nextToPass = 0;
+        tick = 0;
+        score = 0;
+        over = false;
+    }
+
+    /**
+     * Sets the generator of the next chunks of the courses, the
+     * courses are the same with or without it.
+     * @param generator the generator, started, or <code>null</code>
+     *                  to generate every chunk in place.
+     */
+    public void setGenerator (ChunkGenerator generator) {
+        obstacles.setGenerator(generator);
+    }
+
+    /**
+     * Returns the starting coordinate on the x-axis of a Tube.
+     * @param index the index of the Tube.
+     * @return the starting coordinate on the x-axis of the Tube.
+     */
+    private static float getStartX (int index) {
+        return (index + 1) * (TUBE_SPACING + TubeBody.WIDTH);
+    }
+
+    /**
+     * Returns the coordinate on the x-axis from the left side of the view.
+     * @return the coordinate on the x-axis from the left side of the view.
+     */
+    public float getLeftSide () {
+        return bird.getX() + CAMERA_OFFSET - VIEW_WIDTH / 2f;
+    }
+
+    /**
+     * Hop up the Bird.
+     */
+    public void jump () {
+        bird.jump();
+    }
+
+    /**
+     * Game logic.
+     * Steps the game once, in moves of at most {@link #MAX_MOVE}
+     * seconds, so the Tubes are recycled ahead of the Bird however
+     * long the step is.
+     * @param dt the delta time.
+     */
+    public void step (float dt) {
+        tick++;
+        int moves = dt > MAX_MOVE ? (int) Math.ceil(dt / MAX_MOVE) : 1;
+        float moveDt = moves == 1 ? dt : dt / moves;
+        for (int i = 0; i < moves; i++) {
+            move(moveDt);
+            if (over) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Moves the Bird, checks collisions along its move, counts the
+     * Tubes passed and recycles them. The Bird can't go through a
+     * Tube or the ground: it stops where it hit them.
+     * @param dt the delta time, at most {@link #MAX_MOVE}.
+     */
+    private void move (float dt) {
+        bird.step(dt);
+
+        // The Tubes are still where they were during the move.
+        float impact = Math.min(
+                sweep(bird.getPrevX(), bird.getPrevY(), bird.getX(), bird.getY(), BirdBody.WIDTH, BirdBody.HEIGHT),
+                groundImpact(bird.getPrevY(), bird.getY()));
+        if (impact != TubeBody.NO_IMPACT) {
+            bird.stopAt(impact);
+            over = true;
+        }
+
+        while (bird.getX() > tubes[nextToPass].getX() + TubeBody.WIDTH) {
+            score++;
+            nextToPass = next(nextToPass);
+        }
+
+        // Repositions the leftmost Tubes when they are off to the left
+        // of the screen, after the rightmost one.
+        float leftSide = getLeftSide();
+        TubeBody first = tubes[head];
+        while (leftSide > first.getX() + TubeBody.WIDTH) {
+            TubeBody last = tubes[previous(head)];
+            first.reposition(last.getX() + TubeBody.WIDTH + TUBE_SPACING, obstacles.next());
+            head = next(head);
+            first = tubes[head];
+        }
+    }
+
+    /**
+     * Returns when a box moving down hits the ground. Shared with
+     * {@link Lanes} so both have the same rules.
+     * @param y0 the coordinate on the y-axis of the box at the start.
+     * @param y1 the coordinate on the y-axis of the box at the end.
+     * @return the time of the first contact, from 0 at the start to 1
+     *          at the end, or {@link TubeBody#NO_IMPACT}.
+     */
+    static float groundImpact (float y0, float y1) {
+        float ground = GROUND_HEIGHT + GROUND_Y_OFFSET;
+        if (y1 > ground) {
+            return TubeBody.NO_IMPACT;
+        }
+        return y0 > ground ? (y0 - ground) / (y0 - y1) : 0;
+    }
+
+    /**
+     * Sweeps a box moving in a straight line against the Tubes. Walks
+     * the ring from the leftmost Tube and stops at the first one right
+     * of the move.
+     * @param x0 the coordinate on the x-axis of the box at the start.
+     * @param y0 the coordinate on the y-axis of the box at the start.
+     * @param x1 the coordinate on the x-axis of the box at the end.
+     * @param y1 the coordinate on the y-axis of the box at the end.
+     * @param width the width of the box.
+     * @param height the height of the box.
+     * @return the time of the first contact, from 0 at the start to 1
+     *          at the end, or {@link TubeBody#NO_IMPACT}.
+     */
+    public float sweep (float x0, float y0, float x1, float y1, float width, float height) {
+        float left = Math.min(x0, x1);
+        float right = Math.max(x0, x1) + width;
+        float impact = TubeBody.NO_IMPACT;
+        for (int i = 0, t = head; i < tubes.length; i++, t = next(t)) {
+            TubeBody tube = tubes[t];
+            if (tube.getX() >= right) {
+                break;
+            }
+            if (tube.getX() + TubeBody.WIDTH > left) {
+                impact = Math.min(impact, tube.sweep(x0, y0, x1, y1, width, height));
+            }
+        }
+        return impact;
+    }
+
+    /**
+     * Check if a box collides with a Tube. Walks the ring from the
+     * leftmost Tube and stops at the first one right of the box.
+     * @param x the coordinate on the x-axis of the box.
+     * @param y the coordinate on the y-axis of the box.
+     * @param width the width of the box.
+     * @param height the height of the box.
+     * @return <code>true</code> if the box hits a Tube,
+     *          <code>false</code> otherwise.
+     */
+    public boolean collides (float x, float y, float width, float height) {
+        float right = x + width;
+        for (int i = 0, t = head; i < tubes.length; i++, t = next(t)) {
+            TubeBody tube = tubes[t];
+            if (tube.getX() >= right) {
+                return false;
+            }
+            if (tube.collides(x, y, width, height)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index after another in the ring.
+     * @param index the index.
+     * @return the next index.
+     */
+    private int next (int index) {
+        return index + 1 == tubes.length ? 0 : index + 1;
+    }
+
+    /**
+     * Returns the index before another in the ring.
+     * @param index the index.
+     * @return the previous index.
+     */
+    private int previous (int index) {
+        return index == 0 ? tubes.length - 1 : index - 1;
+    }
+
+    /**
+     * Returns the Bird.
+     * @return the Bird.
+     */
+    public BirdBody getBird () {
+        return bird;
+    }
+
+    /**
+     * Returns the number of Tubes.
+     * @return the number of Tubes.
+     */
+    public int getTubeCount () {
+        return tubes.length;
+    }
+
+    /**
+     * Returns a Tube.
+     * @param index the index of the Tube.
+     * @return the Tube.
+     */
+    public TubeBody getTube (int index) {
+        return tubes[index];
+    }
+
+    /**
+     * Returns the first Tube the Bird didn't pass yet.
+     * @return the next Tube in front of the Bird.
+     */
+    public TubeBody getNextTube () {
+        return tubes[nextToPass];
+    }
+
+    /**
+     * Returns the seed of the current game.
+     * @return the seed of the course.
+     */
+    public long getSeed () {
+        return obstacles.getSeed();
+    }
+
+    /**
+     * Returns the number of steps simulated.
+     * @return the number of steps simulated.
+     */
+    public int getTick () {
+        return tick;
+    }
+
+    /**
+     * Returns the number of Tubes passed.
+     * @return the number of Tubes passed.
+     */
+    public int getScore () {
+        return score;
+    }
+
+    /**
+     * Returns whether the Bird hit an obstacle.
+     * @return <code>true</code> if the game is over,
+     *          <code>false</code> otherwise.
+     */
+    public boolean isOver () {
+        return over;
+    }
+}
@@ -0,0 +1,36 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class with the SplitMix64 random generator as static functions
+ * over a <code>long</code> state, so many independent generators
+ * can live in a primitive array without sharing anything.
+ */
+public final class SplitMix {
+
+    /* Increment of the state on every draw. */
+    public static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private SplitMix () {
+    }
+
+    /**
+     * Scrambles a state into 64 random bits.
+     * @param z the state.
+     * @return the random bits.
+     */
+    public static long mix (long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns a random integer from the bits of a draw.
+     * @param state the state after the draw.
+     * @param bound the exclusive upper bound.
+     * @return a random integer from 0 to bound - 1.
+     */
+    public static int nextInt (long state, int bound) {
+        return (int) (((mix(state) >>> 32) * bound) >>> 32);
+    }
+}
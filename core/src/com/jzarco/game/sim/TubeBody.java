@@ -0,0 +1,228 @@
+package com.jzarco.game.sim;
+
+/**
+ * Class to represent the obstacle of a Tube. A TubeBody has the
+ * position of the top Tube and of the bottom Tube, and doesn't
+ * depend on graphics.
+ */
+public class TubeBody {
+
+    /* Width of a Tube. */
+    public static final int WIDTH = 52;
+    /* Height of a Tube. */
+    public static final int HEIGHT = 320;
+    /* Range for Tube position. */
+    public static final int FLUCTUATION = 130;
+    /* Differences between the openings in the Tube. */
+    public static final int GAP = 100;
+    /* Lowest opening for the top of the bottom Tube
+    (can't be below the area of the screen). */
+    public static final int LOWEST_OPENING = 120;
+    /* Time of impact of a box that doesn't hit anything. */
+    public static final float NO_IMPACT = Float.POSITIVE_INFINITY;
+
+    /* Coordinate on the x-axis of both Tubes. */
+    private float x;
+    /* Coordinate on the y-axis of the top Tube. */
+    private float topY;
+    /* Coordinate on the y-axis of the bottom Tube. */
+    private float botY;
+
+    /**
+     * Defines the initial state of a TubeBody.
+     * @param x the coordinate on the x-axis where the Tube begins.
+     * @param topY the coordinate on the y-axis of the top Tube.
+     */
+    public TubeBody (float x, float topY) {
+        reposition(x, topY);
+    }
+
+    /**
+     * Moves the Tube to a new place.
+     * @param x the new coordinate on the x-axis of the Tube.
+     * @param topY the new coordinate on the y-axis of the top Tube.
+     */
+    public void reposition (float x, float topY) {
+        this.x = x;
+        this.topY = topY;
+        botY = bottomOf(topY);
+    }
+
+    /**
+     * Check if a box collides with the Tube, with the same rules
+     * as libGDX Rectangle.overlaps.
+     * @param bx the coordinate on the x-axis of the box.
+     * @param by the coordinate on the y-axis of the box.
+     * @param bw the width of the box.
+     * @param bh the height of the box.
+     * @return <code>true</code> if the box hits a Tube,
+     *          <code>false</code> otherwise.
+     */
+    public boolean collides (float bx, float by, float bw, float bh) {
+        return collides(x, topY, botY, bx, by, bw, bh);
+    }
+
+    /**
+     * Check if a box collides with a Tube given by its coordinates.
+     * Shared with {@link BatchSimulator} so both have the same rules.
+     * @param x the coordinate on the x-axis of the Tube.
+     * @param topY the coordinate on the y-axis of the top Tube.
+     * @param botY the coordinate on the y-axis of the bottom Tube.
+     * @param bx the coordinate on the x-axis of the box.
+     * @param by the coordinate on the y-axis of the box.
+     * @param bw the width of the box.
+     * @param bh the height of the box.
+     * @return <code>true</code> if the box hits a Tube,
+     *          <code>false</code> otherwise.
+     */
+    static boolean collides (float x, float topY, float botY,
+                             float bx, float by, float bw, float bh) {
+        if (bx >= x + WIDTH || bx + bw <= x) {
+            return false;
+        }
+        return (by < topY + HEIGHT && by + bh > topY)
+                || (by < botY + HEIGHT && by + bh > botY);
+    }
+
+    /**
+     * Sweeps a box moving in a straight line against the Tube.
+     * @param x0 the coordinate on the x-axis of the box at the start.
+     * @param y0 the coordinate on the y-axis of the box at the start.
+     * @param x1 the coordinate on the x-axis of the box at the end.
+     * @param y1 the coordinate on the y-axis of the box at the end.
+     * @param bw the width of the box.
+     * @param bh the height of the box.
+     * @return the time of the first contact, from 0 at the start to 1
+     *          at the end, or {@link #NO_IMPACT}.
+     */
+    public float sweep (float x0, float y0, float x1, float y1, float bw, float bh) {
+        return sweep(x, topY, botY, x0, y0, x1, y1, bw, bh);
+    }
+
+    /**
+     * Sweeps a box moving in a straight line against a Tube given by
+     * its coordinates. The box hits the Tube if it overlaps it at any
+     * time of the move, not only at the end, so it can't go through
+     * it in a long step. A box overlapping the Tube at the end always
+     * hits it, with the rules of {@link #collides(float, float, float,
+     * float, float, float, float)}. Shared with {@link Lanes}.
+     * @param x the coordinate on the x-axis of the Tube.
+     * @param topY the coordinate on the y-axis of the top Tube.
+     * @param botY the coordinate on the y-axis of the bottom Tube.
+     * @param x0 the coordinate on the x-axis of the box at the start.
+     * @param y0 the coordinate on the y-axis of the box at the start.
+     * @param x1 the coordinate on the x-axis of the box at the end.
+     * @param y1 the coordinate on the y-axis of the box at the end.
+     * @param bw the width of the box.
+     * @param bh the height of the box.
+     * @return the time of the first contact, from 0 at the start to 1
+     *          at the end, or {@link #NO_IMPACT}.
+     */
+    static float sweep (float x, float topY, float botY,
+                        float x0, float y0, float x1, float y1, float bw, float bh) {
+        // Most moves don't come near the Tubes, skips the divisions.
+        if (Math.min(x0, x1) >= x + WIDTH || Math.max(x0, x1) + bw <= x) {
+            return NO_IMPACT;
+        }
+        float bottom = Math.min(y0, y1);
+        float top = Math.max(y0, y1) + bh;
+        float impact = NO_IMPACT;
+        if (bottom < topY + HEIGHT && top > topY) {
+            impact = sweepBox(x, topY, x0, y0, x1, y1, bw, bh);
+        }
+        if (bottom < botY + HEIGHT && top > botY) {
+            impact = Math.min(impact, sweepBox(x, botY, x0, y0, x1, y1, bw, bh));
+        }
+        if (impact == NO_IMPACT && collides(x, topY, botY, x1, y1, bw, bh)) {
+            // Touching at the end, lost in the rounding of the times.
+            return 1;
+        }
+        return impact;
+    }
+
+    /**
+     * Sweeps a box moving in a straight line against one of the
+     * Tubes, by the times the box enters and leaves it on each axis.
+     * @param x the coordinate on the x-axis of the Tube.
+     * @param y the coordinate on the y-axis of the Tube.
+     * @param x0 the coordinate on the x-axis of the box at the start.
+     * @param y0 the coordinate on the y-axis of the box at the start.
+     * @param x1 the coordinate on the x-axis of the box at the end.
+     * @param y1 the coordinate on the y-axis of the box at the end.
+     * @param bw the width of the box.
+     * @param bh the height of the box.
+     * @return the time of the first contact, or {@link #NO_IMPACT}.
+     */
+    private static float sweepBox (float x, float y,
+                                   float x0, float y0, float x1, float y1, float bw, float bh) {
+        float dx = x1 - x0;
+        float enterX;
+        float exitX;
+        if (dx == 0) {
+            if (x0 >= x + WIDTH || x0 + bw <= x) {
+                return NO_IMPACT;
+            }
+            enterX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        } else {
+            float a = (x - bw - x0) / dx;
+            float b = (x + WIDTH - x0) / dx;
+            enterX = Math.min(a, b);
+            exitX = Math.max(a, b);
+        }
+        float dy = y1 - y0;
+        float enterY;
+        float exitY;
+        if (dy == 0) {
+            if (y0 >= y + HEIGHT || y0 + bh <= y) {
+                return NO_IMPACT;
+            }
+            enterY = Float.NEGATIVE_INFINITY;
+            exitY = Float.POSITIVE_INFINITY;
+        } else {
+            float a = (y - bh - y0) / dy;
+            float b = (y + HEIGHT - y0) / dy;
+            enterY = Math.min(a, b);
+            exitY = Math.max(a, b);
+        }
+        float enter = Math.max(enterX, enterY);
+        float exit = Math.min(exitX, exitY);
+        if (enter >= exit || enter >= 1 || exit <= 0) {
+            return NO_IMPACT;
+        }
+        return Math.max(enter, 0);
+    }
+
+    /**
+     * Returns the coordinate on the y-axis of a bottom Tube.
+     * @param topY the coordinate on the y-axis of the top Tube.
+     * @return the coordinate on the y-axis of the bottom Tube.
+     */
+    static float bottomOf (float topY) {
+        return topY - GAP - HEIGHT;
+    }
+
+    /**
+     * Returns the coordinate on the x-axis of the Tube.
+     * @return the coordinate on the x-axis of the Tube.
+     */
+    public float getX () {
+        return x;
+    }
+
+    /**
+     * Returns the coordinate on the y-axis of the top Tube.
+     * @return the coordinate on the y-axis of the top Tube.
+     */
+    public float getTopY () {
+        return topY;
+    }
+
+    /**
+     * Returns the coordinate on the y-axis of the bottom Tube.
+     * @return the coordinate on the y-axis of the bottom Tube.
+     */
+    public float getBotY () {
+        return botY;
+    }
+}
@@ -0,0 +1,243 @@
+package com.jzarco.game.sim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class to represent a VecEnv, many {@link Env}s stepped together in
+ * one call, for agents trained on batches. The games are stored as
+ * structure of arrays in {@link Lanes}, and large batches are split
+ * across all cores with fork/join.
+ *
+ * The actions, observations, rewards and done flags are preallocated
+ * primitive arrays, read and written in place, so a step allocates
+ * nothing. An environment whose game is over starts a new one right
+ * away: its done flag is set and its observation is the first one of
+ * the new game.
+ *
+ * The first game of environment i is the game of an Env reset with
+ * {@link #getSeed(long, int)} and stepped with the same actions, the
+ * next ones carry on the random generator of the course.
+ */
+public class VecEnv {
+
+    /* Environments stepped by a single task. */
+    private static final int SLICE = 1024;
+
+    /* Number of environments. */
+    private final int size;
+    /* Bird and Tubes of every environment. */
+    private final Lanes lanes;
+    /* Seed the courses are drawn from. */
+    private long seed;
+    /* Whether every Bird jumps on the next step, set by the agent. */
+    private final boolean[] actions;
+    /* Observations, OBSERVATION_SIZE in a row per environment. */
+    private final float[] observations;
+    /* Reward of the last step of every environment. */
+    private final float[] rewards;
+    /* Whether the last step of every environment ended its game. */
+    private final boolean[] dones;
+    /* Score of the last game finished by every environment. */
+    private final int[] lastScores;
+    /* Pool the environments are split across. */
+    private final ForkJoinPool pool;
+    /* Tasks splitting the environments, reused every step. */
+    private final Slice[] slices;
+    private final RecursiveAction root;
+
+    /**
+     * Defines the initial state of a VecEnv, reset.
+     * @param size the number of environments.
+     * @param seed the seed of the courses.
+     */
+    public VecEnv (int size, long seed) {
+        this(size, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Defines the initial state of a VecEnv, reset.
+     * @param size the number of environments.
+     * @param seed the seed of the courses.
+     * @param pool the pool the environments are split across.
+     */
+    public VecEnv (int size, long seed, ForkJoinPool pool) {
+        this.size = size;
+        this.pool = pool;
+        lanes = new Lanes(size);
+        actions = new boolean[size];
+        observations = new float[size * Env.OBSERVATION_SIZE];
+        rewards = new float[size];
+        dones = new boolean[size];
+        lastScores = new int[size];
+
+        slices = new Slice[(size + SLICE - 1) / SLICE];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new Slice(i * SLICE, Math.min(size, (i + 1) * SLICE));
+        }
+        root = new RecursiveAction() {
+            @Override
+            protected void compute () {
+                invokeAll(slices);
+            }
+        };
+        reset(seed);
+    }
+
+    /**
+     * Returns the seed of the course of the first game of an
+     * environment, for an {@link Env} to play it again.
+     * @param seed the seed of the VecEnv.
+     * @param i the environment.
+     * @return the seed of the course.
+     */
+    public static long getSeed (long seed, int i) {
+        return SplitMix.mix(seed + i * SplitMix.GOLDEN_GAMMA);
+    }
+
+    /**
+     * Starts a new game in every environment and writes their first
+     * observations.
+     * @param seed the seed of the courses.
+     */
+    public void reset (long seed) {
+        this.seed = seed;
+        for (int i = 0; i < size; i++) {
+            lanes.reset(i, getSeed(seed, i));
+            observe(i);
+            rewards[i] = 0;
+            dones[i] = false;
+            lastScores[i] = 0;
+        }
+    }
+
+    /**
+     * Steps every environment once with the actions, and writes the
+     * observations, the rewards and the done flags.
+     */
+    public void step () {
+        if (slices.length == 1) {
+            // Not worth waking up the pool.
+            step(0, size);
+            return;
+        }
+        for (int i = 0; i < slices.length; i++) {
+            slices[i].reinitialize();
+        }
+        root.reinitialize();
+        pool.invoke(root);
+    }
+
+    /**
+     * Steps a range of environments once.
+     * @param from the first environment.
+     * @param to the environment after the last one.
+     */
+    private void step (int from, int to) {
+        for (int i = from; i < to; i++) {
+            int score = lanes.getScore(i);
+            boolean over = lanes.step(i, actions[i], Simulation.STEP);
+            if (over) {
+                rewards[i] = Env.CRASH_REWARD;
+                lastScores[i] = lanes.getScore(i);
+                lanes.reset(i);
+            } else {
+                rewards[i] = Env.ALIVE_REWARD + (lanes.getScore(i) - score) * Env.PASS_REWARD;
+            }
+            dones[i] = over;
+            observe(i);
+        }
+    }
+
+    /**
+     * Writes the observation of an environment, like {@link Env}.
+     * @param i the environment.
+     */
+    private void observe (int i) {
+        int o = i * Env.OBSERVATION_SIZE;
+        observations[o] = lanes.getY(i);
+        observations[o + 1] = lanes.getVelocityY(i);
+        observations[o + 2] = lanes.getTubeDx(i);
+        observations[o + 3] = lanes.getGapY(i);
+    }
+
+    /**
+     * Returns the number of environments.
+     * @return the number of environments.
+     */
+    public int getSize () {
+        return size;
+    }
+
+    /**
+     * Returns the seed of the courses of the first games.
+     * @return the seed of the VecEnv.
+     */
+    public long getSeed () {
+        return seed;
+    }
+
+    /**
+     * Returns the actions of the next step, to be filled in place.
+     * @return whether every Bird jumps on the next step.
+     */
+    public boolean[] getActions () {
+        return actions;
+    }
+
+    /**
+     * Returns the observations of the last step, overwritten by the
+     * next one.
+     * @return {@link Env#OBSERVATION_SIZE} floats in a row per
+     *         environment.
+     */
+    public float[] getObservations () {
+        return observations;
+    }
+
+    /**
+     * Returns the rewards of the last step.
+     * @return the reward of every environment.
+     */
+    public float[] getRewards () {
+        return rewards;
+    }
+
+    /**
+     * Returns whether the last step ended the game of every
+     * environment, which then started a new one.
+     * @return the done flag of every environment.
+     */
+    public boolean[] getDones () {
+        return dones;
+    }
+
+    /**
+     * Returns the score of the last game finished by every environment.
+     * @return the score of every environment, 0 before a game ended.
+     */
+    public int[] getLastScores () {
+        return lastScores;
+    }
+
+    /**
+     * Class to represent the task stepping a range of environments.
+     */
+    private class Slice extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Slice (int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute () {
+            step(from, to);
+        }
+    }
+}
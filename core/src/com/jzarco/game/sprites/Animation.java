@@ -45,6 +45,14 @@ public class Animation {
         return frames.get(frame);
     }
 
+    /**
+     * Goes back to the first frame.
+     */
+    public void reset () {
+        frame = 0;
+        currentFrameTime = 0;
+    }
+
     /**
      * Updates.
      * @param dt the delta time, change in time between render cycles.
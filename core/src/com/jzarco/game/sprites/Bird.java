@@ -1,51 +1,52 @@
 package com.jzarco.game.sprites;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.audio.AudioBank;
+import com.jzarco.game.audio.Effect;
+import com.jzarco.game.sim.BirdBody;
 
 /**
- * Class to represent a Bird. A Bird has a position, a texture,
- * a velocity, a invisible rectangle for the bird, an
- * animation and a sound.
+ * Class to represent a Bird. A Bird is the view of a
+ * {@link BirdBody}: it has a position, a texture, an animation
+ * and a sound.
  */
 public class Bird {
 
-    /* Gravity of the Bird. */
-    private static final int GRAVITY = -15;
-    /* Horizontal movement of the Bird. */
-    private static final int MOVEMENT = 100;
+    /* Atlas region of the Bird animation. */
+    private static final String REGION = "birdanimation";
 
-    /* Collision Detection. */
-    /* Invisible rectangle for the Bird. */
-    private final Rectangle bounds;
+    /* Physics of the Bird. */
+    private final BirdBody body;
 
     /* Position of the Bird. */
     private final Vector3 position;
-    /* Velocity (Direction) of the Bird. */
-    private final Vector3 velocity;
-    /* Texture of the Bird. */
-    private final Texture texture;
+    /* Position of the Bird between the last two updates. */
+    private final Vector3 interpolated;
+    /* Texture of the Bird, all the frames of the animation. */
+    private final TextureRegion texture;
     /* Animation of the Bird. */
     private final Animation birdAnimation;
-    /* Sound of the Bird. */
-    private final Sound flap;
+    /* Plays the flap of the Bird. */
+    private final AudioBank audio;
+    /* Assets the Bird borrows from. */
+    private final AssetCache assets;
 
     /**
      * Defines the initial state of a Bird.
-     * @param x the coordinate on the x-axis of the Bird.
-     * @param y the coordinate on the y-axis of the Bird.
+     * @param assets the assets to borrow the texture from.
+     * @param audio the audio bank playing the flap.
+     * @param body the physics of the Bird.
      */
-    public Bird (int x, int y) {
-        position = new Vector3(x, y, 0);
-        velocity = new Vector3(0, 0, 0);
-        texture = new Texture("birdanimation.png");
-        birdAnimation = new Animation(new TextureRegion(texture), 3, 0.5f);
-        bounds = new Rectangle(x, y, texture.getWidth() / 3.0f, texture.getHeight());
-        flap = Gdx.audio.newSound(Gdx.files.internal("sfx_wing.ogg"));
+    public Bird (AssetCache assets, AudioBank audio, BirdBody body) {
+        this.assets = assets;
+        this.audio = audio;
+        this.body = body;
+        position = new Vector3(body.getX(), body.getY(), 0);
+        interpolated = new Vector3(position);
+        texture = assets.getAtlas(AssetCache.ATLAS).findRegion(REGION);
+        birdAnimation = new Animation(texture, 3, 0.5f);
     }
 
     /**
@@ -53,7 +54,17 @@ public class Bird {
      * @return the position of the Bird.
      */
     public Vector3 getPosition() {
-        return position;
+        return position.set(body.getX(), body.getY(), 0);
+    }
+
+    /**
+     * Returns the position of the Bird between the last two updates.
+     * @param alpha how far from the previous update, from 0 to 1.
+     * @return the interpolated position, reused on every call.
+     */
+    public Vector3 interpolate (float alpha) {
+        return interpolated.set(body.getPrevX(), body.getPrevY(), 0)
+                .lerp(getPosition(), alpha);
     }
 
     /**
@@ -65,53 +76,33 @@ public class Bird {
     }
 
     /**
-     * Returns the invisible rectangle for the Bird.
-     * @return the invisible rectangle for the Bird.
+     * Animates the Bird, the physics are updated by the simulation.
+     * @param dt the delta time, a fixed step.
      */
-    public Rectangle getBounds() {
-        return bounds;
+    public void update (float dt) {
+        birdAnimation.update(dt);
     }
 
     /**
-     * Bird logic.
-     * Resets the position of the Bird, doing the maths.
-     * @param dt the delta time.
+     * Starts the animation again, after the body was reset.
      */
-    public void update (float dt) {
-        birdAnimation.update(dt);
-
-        if (position. y > 0) {
-            // Add the gravity component to the velocity.
-            velocity.add(0, GRAVITY, 0);
-        }
-        // Ensure that changes in position and speed are proportional to time.
-        velocity.scl(dt);
-        // Update the position.
-        position.add(MOVEMENT * dt, velocity.y, 0);
-        // Can't go down further than the bottom screen.
-        if (position.y < 0) {
-            position.y = 0;
-        }
-        // Restores the speed to its original value.
-        velocity.scl(1 / dt);
-
-        bounds.setPosition(position.x, position.y);
+    public void reset () {
+        birdAnimation.reset();
     }
 
     /**
      * Hop up the Bird in the y-axis.
      */
     public void jump () {
-        velocity.y = 250;
+        body.jump();
 
-        flap.play(0.5f);
+        audio.play(Effect.FLAP);
     }
 
     /**
      * Disposes.
      */
     public void dispose() {
-        texture.dispose();
-        flap.dispose();
+        assets.release(AssetCache.ATLAS);
     }
 }
@@ -0,0 +1,104 @@
+package com.jzarco.game.sprites;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.sim.BirdBody;
+import com.jzarco.game.sim.GhostFlock;
+
+/**
+ * Class to represent a GhostCrowd, the view of a {@link GhostFlock}.
+ * Every ghost shares the same atlas region and the same Animation,
+ * and is drawn tinted and semi-transparent, so the whole crowd is a
+ * few quads more in the batch of the frame, without a texture switch.
+ */
+public class GhostCrowd {
+
+    /* Atlas region of the Bird animation. */
+    private static final String REGION = "birdanimation";
+    /* Opacity of a ghost. */
+    private static final float ALPHA = 0.35f;
+    /* Tints of the ghosts, one after the other. */
+    private static final Color[] TINTS = {
+            Color.WHITE, Color.SKY, Color.PINK, Color.LIME,
+            Color.GOLD, Color.CORAL, Color.VIOLET, Color.CYAN
+    };
+
+    /* Ghosts of the crowd. */
+    private final GhostFlock flock;
+    /* Animation shared by every ghost. */
+    private final Animation animation;
+    /* Tints with the opacity of a ghost, packed for the batch. */
+    private final float[] tints;
+    /* Assets the crowd borrows from. */
+    private final AssetCache assets;
+
+    /**
+     * Defines the initial state of a GhostCrowd.
+     * @param assets the assets to borrow the texture from.
+     * @param flock the ghosts of the crowd.
+     */
+    public GhostCrowd (AssetCache assets, GhostFlock flock) {
+        this.assets = assets;
+        this.flock = flock;
+        TextureRegion region = assets.getAtlas(AssetCache.ATLAS).findRegion(REGION);
+        animation = new Animation(region, 3, 0.5f);
+        tints = new float[TINTS.length];
+        for (int i = 0; i < TINTS.length; i++) {
+            Color tint = TINTS[i];
+            tints[i] = Color.toFloatBits(tint.r, tint.g, tint.b, ALPHA);
+        }
+    }
+
+    /**
+     * Animates the crowd.
+     * @param dt the delta time, a fixed step.
+     */
+    public void update (float dt) {
+        animation.update(dt);
+    }
+
+    /**
+     * Starts the animation again, after the flock was reset.
+     */
+    public void reset () {
+        animation.reset();
+    }
+
+    /**
+     * Draws every ghost still flying and in view, inside a begun batch.
+     * @param sb the sprite batch.
+     * @param culler the culler of the view.
+     * @param x the coordinate on the x-axis of the ghosts.
+     * @param alpha how far from the previous step, from 0 to 1.
+     */
+    public void render (SpriteBatch sb, ViewCuller culler, float x, float alpha) {
+        int size = flock.getSize();
+        if (size == 0) {
+            return;
+        }
+        TextureRegion frame = animation.getFrame();
+        float color = sb.getPackedColor();
+        for (int i = 0; i < size; i++) {
+            if (!flock.isAlive(i)) {
+                continue;
+            }
+            float prevY = flock.getPrevY(i);
+            float y = prevY + (flock.getY(i) - prevY) * alpha;
+            if (!culler.isVisible(x, y, BirdBody.WIDTH, BirdBody.HEIGHT)) {
+                continue;
+            }
+            sb.setPackedColor(tints[i % tints.length]);
+            sb.draw(frame, x, y);
+        }
+        sb.setPackedColor(color);
+    }
+
+    /**
+     * Disposes.
+     */
+    public void dispose () {
+        assets.release(AssetCache.ATLAS);
+    }
+}
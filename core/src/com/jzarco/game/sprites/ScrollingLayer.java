@@ -0,0 +1,86 @@
+package com.jzarco.game.sprites;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Class to represent a ScrollingLayer, an endless strip of a texture
+ * covering the whole view, like the ground or the background. The
+ * texture repeats and the layer scrolls by moving its texture
+ * coordinates, so it is a single quad however wide the view is.
+ *
+ * A layer can scroll slower than the world for parallax. GLES2
+ * without the NPOT extension can't repeat a texture whose size isn't
+ * a power of two, there the layer is tiled with a quad per repeat.
+ */
+public class ScrollingLayer {
+
+    /* Texture of the layer, repeated on the x-axis. */
+    private final Texture texture;
+    /* Speed of the layer, 1 moves with the world, 0 with the camera. */
+    private final float parallax;
+    /* Coordinate on the y-axis of the layer. */
+    private final float y;
+    /* Whether the texture can repeat. */
+    private final boolean repeat;
+
+    /**
+     * Defines the initial state of a ScrollingLayer.
+     * @param texture the texture of the layer, not owned.
+     * @param parallax the speed of the layer, relative to the world.
+     * @param y the coordinate on the y-axis of the layer.
+     */
+    public ScrollingLayer (Texture texture, float parallax, float y) {
+        this.texture = texture;
+        this.parallax = parallax;
+        this.y = y;
+        repeat = canRepeat(texture);
+        if (repeat) {
+            texture.setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.ClampToEdge);
+        }
+    }
+
+    /**
+     * Returns whether the GPU can repeat a texture.
+     * @param texture the texture.
+     * @return <code>true</code> if the texture can use the repeat wrap.
+     */
+    private static boolean canRepeat (Texture texture) {
+        if (MathUtils.isPowerOfTwo(texture.getWidth()) && MathUtils.isPowerOfTwo(texture.getHeight())) {
+            return true;
+        }
+        Application.ApplicationType type = Gdx.app.getType();
+        return type == Application.ApplicationType.Desktop
+                || type == Application.ApplicationType.HeadlessDesktop
+                || Gdx.gl30 != null
+                || Gdx.graphics.supportsExtension("GL_OES_texture_npot");
+    }
+
+    /**
+     * Draws the layer over the view, inside a begun batch.
+     * @param sb the sprite batch.
+     * @param left the coordinate on the x-axis of the left side of the view.
+     * @param width the width of the view.
+     */
+    public void render (SpriteBatch sb, float left, float width) {
+        float textureWidth = texture.getWidth();
+        float height = texture.getHeight();
+        // Texels scrolled, wrapped so the coordinates stay small.
+        float offset = (left * parallax) % textureWidth;
+        if (offset < 0) {
+            offset += textureWidth;
+        }
+
+        if (repeat) {
+            float u = offset / textureWidth;
+            sb.draw(texture, left, y, width, height, u, 1, u + width / textureWidth, 0);
+            return;
+        }
+        for (float x = left - offset; x < left + width; x += textureWidth) {
+            sb.draw(texture, x, y);
+        }
+    }
+}
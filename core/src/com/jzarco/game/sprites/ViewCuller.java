@@ -0,0 +1,75 @@
+package com.jzarco.game.sprites;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+
+/**
+ * Class to represent a ViewCuller, which tells whether a sprite is
+ * inside the visible rectangle of a camera before it is submitted to
+ * the batch, and counts the sprites drawn and culled during a frame.
+ */
+public class ViewCuller {
+
+    /* Visible rectangle of the camera. */
+    private float left;
+    private float bottom;
+    private float right;
+    private float top;
+    /* Sprites found visible since the last reset. */
+    private int drawn;
+    /* Sprites found outside the view since the last reset. */
+    private int culled;
+
+    /**
+     * Starts a new frame, clearing the counters.
+     */
+    public void reset () {
+        drawn = 0;
+        culled = 0;
+    }
+
+    /**
+     * Takes the visible rectangle of a camera, which isn't rotated.
+     * @param cam the camera, updated.
+     */
+    public void setView (OrthographicCamera cam) {
+        float halfWidth = cam.viewportWidth * cam.zoom / 2;
+        float halfHeight = cam.viewportHeight * cam.zoom / 2;
+        left = cam.position.x - halfWidth;
+        right = cam.position.x + halfWidth;
+        bottom = cam.position.y - halfHeight;
+        top = cam.position.y + halfHeight;
+    }
+
+    /**
+     * Returns whether a sprite overlaps the view, and counts it.
+     * @param x the coordinate on the x-axis of the sprite.
+     * @param y the coordinate on the y-axis of the sprite.
+     * @param width the width of the sprite.
+     * @param height the height of the sprite.
+     * @return <code>true</code> if the sprite must be drawn.
+     */
+    public boolean isVisible (float x, float y, float width, float height) {
+        if (x < right && x + width > left && y < top && y + height > bottom) {
+            drawn++;
+            return true;
+        }
+        culled++;
+        return false;
+    }
+
+    /**
+     * Returns the sprites found visible since the last reset.
+     * @return the sprites drawn.
+     */
+    public int getDrawn () {
+        return drawn;
+    }
+
+    /**
+     * Returns the sprites found outside the view since the last reset.
+     * @return the sprites culled.
+     */
+    public int getCulled () {
+        return culled;
+    }
+}
@@ -1,24 +1,116 @@
 package com.jzarco.game.states;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-
-import java.util.Stack;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.audio.AudioBank;
+import com.jzarco.game.debug.FrameProfiler;
+import com.jzarco.game.scores.Leaderboard;
+import com.jzarco.game.sim.Simulation;
+import com.jzarco.game.sprites.ViewCuller;
 
 /**
  * Class to represent a GameStateManager, which is capable of
  * managing different game states efficiently. e.g. put it on
  * top, pause state, pop up ahead, ...
+ *
+ * Only the top state handles input and is updated. A transparent
+ * state lets the states below it be rendered too, frozen at their
+ * last step, and every visible state is rendered bottom-up inside a
+ * single begin and end of the sprite batch.
  */
-public class GameStateManager {
+public class GameStateManager implements Disposable {
+
+    /* Maximum number of steps simulated in a single frame, so a long
+    frame can't make the game fall further and further behind. */
+    private static final int MAX_STEPS = 5;
 
-    /* It works with a stack. */
-    private Stack<State> states;
+    /* It works with a stack, the top is the last element. Not
+    synchronized, it is only used from the render thread. */
+    private final Array<State> states;
+    /* Reusable states removed from the stack, by class. */
+    private final ObjectMap<Class<?>, State> pool;
+    /* Assets shared by every state. */
+    private final AssetCache assets;
+    /* Sounds shared by every state. */
+    private final AudioBank audio;
+    /* Frame time not simulated yet. */
+    private float accumulator;
+    /* How far the render is between the last two steps, from 0 to 1. */
+    private float alpha;
+    /* Draw calls issued by the sprite batch during the last frame. */
+    private int renderCalls;
+    /* Draw calls issued by the sprite batch since the beginning. */
+    private int totalRenderCalls;
+    /* Culls the sprites outside the view, and counts them. */
+    private final ViewCuller culler;
+    /* Times the states, or null. */
+    private FrameProfiler profiler;
+    /* Records the finished runs, or null. */
+    private Leaderboard leaderboard;
 
     /**
      * Defines the initial state of a GameStateManager.
+     * @param assets the assets shared by every state.
+     * @param audio the sounds shared by every state.
      */
-    public GameStateManager () {
-        states = new Stack<State>();
+    public GameStateManager (AssetCache assets, AudioBank audio) {
+        states = new Array<State>();
+        pool = new ObjectMap<Class<?>, State>();
+        this.assets = assets;
+        this.audio = audio;
+        culler = new ViewCuller();
+    }
+
+    /**
+     * Returns the assets shared by every state.
+     * @return the assets shared by every state.
+     */
+    public AssetCache getAssets () {
+        return assets;
+    }
+
+    /**
+     * Returns the sounds shared by every state.
+     * @return the sounds shared by every state.
+     */
+    public AudioBank getAudio () {
+        return audio;
+    }
+
+    /**
+     * Returns the culler shared by every state, reset every frame.
+     * @return the culler shared by every state.
+     */
+    public ViewCuller getCuller () {
+        return culler;
+    }
+
+    /**
+     * Sets the profiler timing the update and render of every state.
+     * @param profiler the profiler, or <code>null</code> to stop timing.
+     */
+    public void setProfiler (FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Sets the leaderboard the finished runs are recorded to.
+     * @param leaderboard the leaderboard, or <code>null</code> not to record them.
+     */
+    public void setLeaderboard (Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Returns the leaderboard the finished runs are recorded to.
+     * @return the leaderboard, or <code>null</code>.
+     */
+    public Leaderboard getLeaderboard () {
+        return leaderboard;
     }
 
     /**
@@ -26,14 +118,14 @@ public class GameStateManager {
      * @param state the state to add.
      */
     public void push (State state) {
-        states.push(state);
+        states.add(state);
     }
 
     /**
      * Removes the state at the top of the stack.
      */
     public void pop () {
-        states.pop().dispose();
+        retire(states.pop());
     }
 
     /**
@@ -42,23 +134,169 @@ public class GameStateManager {
      * @param state the state to add.
      */
     public void set (State state) {
-        states.pop().dispose();
-        states.push(state);
+        retire(states.pop());
+        states.add(state);
+    }
+
+    /**
+     * Returns the state at the top of the stack.
+     * @return the state at the top of the stack.
+     */
+    public State peek () {
+        return states.peek();
+    }
+
+    /**
+     * Takes a state of the given class out of the pool, reset.
+     * @param type the class of the state.
+     * @param <T> the type of the state.
+     * @return the reused state, or <code>null</code> if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends State> T obtain (Class<T> type) {
+        State state = pool.remove(type);
+        if (state != null) {
+            state.reset();
+        }
+        return (T) state;
+    }
+
+    /**
+     * Keeps a removed state in the pool if it is reusable,
+     * disposes it otherwise.
+     * @param state the removed state.
+     */
+    private void retire (State state) {
+        if (!state.isReusable()) {
+            state.dispose();
+            return;
+        }
+        State old = pool.put(state.getClass(), state);
+        if (old != null) {
+            old.dispose();
+        }
     }
 
     /**
      * Updates.
+     * Input is handled once per frame, then the top state is
+     * simulated in fixed steps of {@link Simulation#STEP} seconds.
      * @param dt the delta time
      */
     public void update (float dt) {
-        states.peek().update(dt);
+        State top = states.peek();
+        top.handleInput();
+        if (!top.isContinuous()) {
+            // The frame comes after an idle wait, which is not game time.
+            accumulator = 0;
+            dt = 0;
+        }
+
+        accumulator += dt;
+        int steps = 0;
+        while (accumulator >= Simulation.STEP && steps < MAX_STEPS) {
+            // The state can change during a step, so peek every time.
+            State state = states.peek();
+            long start = profiler == null ? 0 : TimeUtils.nanoTime();
+            state.update(Simulation.STEP);
+            if (profiler != null) {
+                profiler.addUpdate(state.getClass(), TimeUtils.nanoTime() - start);
+            }
+            accumulator -= Simulation.STEP;
+            steps++;
+        }
+        if (accumulator >= Simulation.STEP) {
+            // Too far behind, drop the time that could not be simulated.
+            accumulator %= Simulation.STEP;
+        }
+        alpha = accumulator / Simulation.STEP;
     }
 
     /**
-     * Renders.
-     * @param sb the sprite batch
+     * Pauses the state at the top of the stack.
+     */
+    public void pause () {
+        states.peek().pause();
+    }
+
+    /**
+     * Returns whether the state at the top of the stack is rendered
+     * every frame.
+     * @return <code>false</code> if a frame can wait for input.
+     */
+    public boolean isContinuous () {
+        return states.peek().isContinuous();
+    }
+
+    /**
+     * Returns how far the render is between the last two steps.
+     * @return a value from 0, the previous step, to 1, the last step.
+     */
+    public float getAlpha () {
+        return alpha;
+    }
+
+    /**
+     * Renders the top state and every state visible under it,
+     * bottom-up, in one pass of the sprite batch.
+     * @param sb the sprite batch, not begun.
      */
     public void render (SpriteBatch sb) {
-        states.peek().render(sb);
+        int before = sb.totalRenderCalls;
+        culler.reset();
+
+        int top = states.size - 1;
+        int bottom = top;
+        while (bottom > 0 && states.get(bottom).isTransparent()) {
+            bottom--;
+        }
+
+        float topAlpha = alpha;
+        sb.begin();
+        for (int i = bottom; i <= top; i++) {
+            State state = states.get(i);
+            // The states under the top one don't step, draw them at their last step.
+            alpha = i == top ? topAlpha : 1;
+            long start = profiler == null ? 0 : TimeUtils.nanoTime();
+            state.render(sb);
+            if (profiler != null) {
+                profiler.addRender(state.getClass(), TimeUtils.nanoTime() - start);
+            }
+        }
+        sb.end();
+        alpha = topAlpha;
+
+        totalRenderCalls = sb.totalRenderCalls;
+        renderCalls = totalRenderCalls - before;
+    }
+
+    /**
+     * Disposes every state, in the stack and in the pool.
+     */
+    @Override
+    public void dispose () {
+        while (states.size > 0) {
+            states.pop().dispose();
+        }
+        for (State state : pool.values()) {
+            state.dispose();
+        }
+        pool.clear();
+    }
+
+    /**
+     * Returns the draw calls issued during the last frame.
+     * @return the draw calls issued during the last frame.
+     */
+    public int getRenderCalls () {
+        return renderCalls;
+    }
+
+    /**
+     * Returns the draw calls issued since the beginning.
+     * @return the draw calls issued since the beginning.
+     */
+    public int getTotalRenderCalls () {
+        return totalRenderCalls;
     }
 }
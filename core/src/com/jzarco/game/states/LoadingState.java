@@ -0,0 +1,106 @@
+package com.jzarco.game.states;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.jzarco.game.FlappyDemo;
+
+/**
+ * Class to represent a LoadingState, the first state of the game.
+ * A LoadingState streams every asset in the background while it
+ * shows a progress bar, then moves to the {@link MenuState}.
+ *
+ * It logs the time to the first frame and the time until the menu
+ * is interactive, both from the creation of the game.
+ */
+public class LoadingState extends State {
+
+    /* Tag used for logging. */
+    private static final String TAG = "LoadingState";
+    /* Time the GL thread can spend loading per step, in milliseconds. */
+    private static final int BUDGET = 8;
+    /* Size of the progress bar. */
+    private static final float BAR_WIDTH = 160;
+    private static final float BAR_HEIGHT = 8;
+
+    /* White pixel, stretched to draw the progress bar. */
+    private final Texture pixel;
+    /* Time the game was created, in nanoseconds. */
+    private final long startTime;
+    /* Whether a frame was rendered yet. */
+    private boolean rendered;
+
+    /**
+     * Defines the initial state of a LoadingState and queues
+     * every asset of the game.
+     * @param gsm the game state manager.
+     * @param startTime the time the game was created, from
+     *                  {@link TimeUtils#nanoTime()}.
+     */
+    public LoadingState (GameStateManager gsm, long startTime) {
+        super(gsm);
+        this.startTime = startTime;
+        // Camera to set a viewport.
+        cam.setToOrtho(false,
+                FlappyDemo.WIDTH / 2.0f,
+                FlappyDemo.HEIGHT / 2.0f);
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        pixel = new Texture(pixmap);
+        pixmap.dispose();
+        assets.queueAll();
+    }
+
+    /**
+     * Handles input, there is nothing to touch while loading.
+     */
+    @Override
+    protected void handleInput () {
+    }
+
+    /**
+     * Streams the assets, and moves to the menu once they are loaded.
+     * @param dt the delta time.
+     */
+    @Override
+    public void update (float dt) {
+        if (assets.update(BUDGET)) {
+            Gdx.app.log(TAG, "Time to interactive: " + TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(startTime)) + " ms");
+            gsm.set(new MenuState(gsm));
+        }
+    }
+
+    /**
+     * Renders the progress bar.
+     * @param sb the sprite batch.
+     */
+    @Override
+    public void render (SpriteBatch sb) {
+        float x = (cam.viewportWidth - BAR_WIDTH) / 2;
+        float y = (cam.viewportHeight - BAR_HEIGHT) / 2;
+
+        sb.setProjectionMatrix(cam.combined);
+        sb.setColor(Color.DARK_GRAY);
+        sb.draw(pixel, x, y, BAR_WIDTH, BAR_HEIGHT);
+        sb.setColor(Color.WHITE);
+        sb.draw(pixel, x, y, BAR_WIDTH * assets.getProgress(), BAR_HEIGHT);
+
+        if (!rendered) {
+            rendered = true;
+            Gdx.app.log(TAG, "Time to first frame: " + TimeUtils.nanosToMillis(TimeUtils.timeSinceNanos(startTime)) + " ms");
+        }
+    }
+
+    /**
+     * Disposes.
+     */
+    @Override
+    public void dispose () {
+        pixel.dispose();
+        Gdx.app.log(TAG, "Disposed.");
+    }
+}
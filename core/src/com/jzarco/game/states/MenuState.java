@@ -1,20 +1,30 @@
 package com.jzarco.game.states;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.jzarco.game.FlappyDemo;
+import com.jzarco.game.assets.AssetCache;
 
 /**
  * Class to represent a MenuState. A MenuState has a background
- * and a play button.
+ * and a play button. G starts the crowd mode instead.
  */
 public class MenuState extends State {
 
+    /* Tag used for logging. */
+    private static final String TAG = "MenuState";
+    /* Atlas region of the background. */
+    private static final String BG = "bg";
+    /* Atlas region of the play button. */
+    private static final String PLAY_BTN = "playbtn";
+
     /* Background of the MenuState. */
-    private final Texture bg;
+    private final TextureRegion bg;
     /* Play button of the MenuState. */
-    private final Texture playbtn;
+    private final TextureRegion playbtn;
 
     /**
      * Defines the initial state of a MenuState.
@@ -26,8 +36,18 @@ public class MenuState extends State {
         cam.setToOrtho(false,
                 FlappyDemo.WIDTH / 2.0f,
                 FlappyDemo.HEIGHT / 2.0f);
-        bg = new Texture("bg.png");
-        playbtn = new Texture("playbtn.png");
+        TextureAtlas atlas = assets.getAtlas(AssetCache.ATLAS);
+        bg = atlas.findRegion(BG);
+        playbtn = atlas.findRegion(PLAY_BTN);
+    }
+
+    /**
+     * Returns whether the state is rendered every frame.
+     * @return <code>false</code>, the menu only changes on input.
+     */
+    @Override
+    public boolean isContinuous () {
+        return false;
     }
 
     /**
@@ -35,8 +55,11 @@ public class MenuState extends State {
      */
     @Override
     public void handleInput () {
-        if (Gdx.input.justTouched()) {
-            gsm.set(new PlayState(gsm));
+        boolean crowd = Gdx.input.isKeyJustPressed(Input.Keys.G);
+        if (Gdx.input.justTouched() || crowd) {
+            PlayState play = new PlayState(gsm);
+            play.setCrowdMode(crowd);
+            gsm.set(play);
         }
     }
 
@@ -46,7 +69,6 @@ public class MenuState extends State {
      */
     @Override
     public void update (float dt) {
-        handleInput();
     }
 
     /**
@@ -56,11 +78,8 @@ public class MenuState extends State {
     @Override
     public void render (SpriteBatch sb) {
         sb.setProjectionMatrix(cam.combined);
-
-        sb.begin();
         sb.draw(bg, 0, 0);
-        sb.draw(playbtn, cam.position.x - (playbtn.getWidth() / 2.0f), cam.position.y);
-        sb.end();
+        sb.draw(playbtn, cam.position.x - (playbtn.getRegionWidth() / 2.0f), cam.position.y);
     }
 
     /**
@@ -68,8 +87,7 @@ public class MenuState extends State {
      */
     @Override
     public void dispose () {
-        bg.dispose();
-        playbtn.dispose();
-        System.out.println("Menu State Disposed.");
+        assets.release(AssetCache.ATLAS);
+        Gdx.app.log(TAG, "Disposed.");
     }
 }
@@ -0,0 +1,119 @@
+package com.jzarco.game.states;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.jzarco.game.FlappyDemo;
+import com.jzarco.game.assets.AssetCache;
+
+/**
+ * Class to represent a PauseState, pushed on top of a game. The
+ * game is still drawn under it, dimmed and frozen, and a touch or
+ * P or Escape pops it to carry on.
+ */
+public class PauseState extends State {
+
+    /* Tag used for logging. */
+    private static final String TAG = "PauseState";
+    /* Atlas region of the play button. */
+    private static final String PLAY_BTN = "playbtn";
+    /* Atlas region of the background, opaque everywhere. */
+    private static final String BG = "bg";
+    /* Opacity of the shade over the game. */
+    private static final float SHADE = 0.5f;
+
+    /* Opaque pixel inside the background, stretched and tinted black
+    to shade the game: any opaque pixel tinted black is the same, so
+    the shade needs no sprite of its own. Away from the edges of the
+    region, the stretched pixel never samples the padding around it. */
+    private final TextureRegion pixel;
+    /* Play button of the PauseState. */
+    private final TextureRegion playbtn;
+
+    /**
+     * Defines the initial state of a PauseState.
+     * @param gsm the game state manager.
+     */
+    public PauseState (GameStateManager gsm) {
+        super(gsm);
+        // Camera to set a viewport.
+        cam.setToOrtho(false,
+                FlappyDemo.WIDTH / 2.0f,
+                FlappyDemo.HEIGHT / 2.0f);
+        TextureAtlas atlas = assets.getAtlas(AssetCache.ATLAS);
+        pixel = new TextureRegion(atlas.findRegion(BG), 1, 1, 1, 1);
+        playbtn = atlas.findRegion(PLAY_BTN);
+    }
+
+    /**
+     * Returns whether the states below are still visible.
+     * @return <code>true</code>, the game is drawn under the shade.
+     */
+    @Override
+    public boolean isTransparent () {
+        return true;
+    }
+
+    /**
+     * Returns whether the state is rendered every frame.
+     * @return <code>false</code>, the game is frozen until input.
+     */
+    @Override
+    public boolean isContinuous () {
+        return false;
+    }
+
+    /**
+     * Returns whether the state can be reused.
+     * @return <code>true</code>, a PauseState has nothing to reset.
+     */
+    @Override
+    public boolean isReusable () {
+        return true;
+    }
+
+    /**
+     * Handles input.
+     */
+    @Override
+    protected void handleInput () {
+        if (Gdx.input.justTouched()
+                || Gdx.input.isKeyJustPressed(Input.Keys.P)
+                || Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+            gsm.pop();
+        }
+    }
+
+    /**
+     * Updates, nothing moves while paused.
+     * @param dt the delta time.
+     */
+    @Override
+    public void update (float dt) {
+    }
+
+    /**
+     * Renders the shade and the play button over the game.
+     * @param sb the sprite batch.
+     */
+    @Override
+    public void render (SpriteBatch sb) {
+        sb.setProjectionMatrix(cam.combined);
+        sb.setColor(0, 0, 0, SHADE);
+        sb.draw(pixel, 0, 0, cam.viewportWidth, cam.viewportHeight);
+        sb.setColor(Color.WHITE);
+        sb.draw(playbtn, cam.position.x - (playbtn.getRegionWidth() / 2.0f), cam.position.y);
+    }
+
+    /**
+     * Disposes.
+     */
+    @Override
+    public void dispose () {
+        assets.release(AssetCache.ATLAS);
+        Gdx.app.log(TAG, "Disposed.");
+    }
+}
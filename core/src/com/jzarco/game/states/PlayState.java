@@ -1,39 +1,81 @@
 package com.jzarco.game.states;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StreamUtils;
 import com.jzarco.game.FlappyDemo;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.replay.Replay;
+import com.jzarco.game.replay.ReplayRecorder;
+import com.jzarco.game.sim.ChunkGenerator;
+import com.jzarco.game.sim.GhostFlock;
+import com.jzarco.game.sim.Simulation;
+import com.jzarco.game.sim.TubeBody;
+import com.jzarco.game.sim.SplitMix;
 import com.jzarco.game.sprites.Bird;
+import com.jzarco.game.sprites.GhostCrowd;
+import com.jzarco.game.sprites.ScrollingLayer;
 import com.jzarco.game.sprites.Tube;
+import com.jzarco.game.sprites.ViewCuller;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
- * Class to represent a PlayState. A PlayState has a background,
- * a ground, which has two position, a bird and an array of tubes.
+ * Class to represent a PlayState. A PlayState has a background and
+ * a ground, which scroll endlessly, a bird and an array of tubes,
+ * which are the views of a {@link Simulation} of the game rules.
+ * Every game is recorded, F5 saves the last one as a {@link Replay},
+ * and P or Escape pauses it under a {@link PauseState}.
+ *
+ * In crowd mode every game is played on the same course, next to a
+ * crowd of ghosts: a population of bots and the previous runs.
  */
 public class PlayState extends State {
 
-    /* Space between tubes, including one of the Tubes themselves. */
-    private static final int TUBE_SPACING = 125;
-    /* Total number of Tubes. */
-    private static final int TUBE_COUNT = 4;
-    /* Ground y offset. */
-    private static final int GROUND_Y_OFFSET = -50;
+    /* Tag used for logging. */
+    private static final String TAG = "PlayState";
+    /* Speed of the background, relative to the world. */
+    private static final float BG_PARALLAX = 0.25f;
+    /* Directory the replays are saved to. */
+    private static final String REPLAYS = "replays/";
+    /* Course of the crowd mode. */
+    private static final long CROWD_SEED = 0x5EED_F1A9L;
+    /* Maximum number of ghosts, bots and previous runs. */
+    private static final int GHOSTS = 1000;
+    /* Number of bots of the crowd mode. */
+    private static final int BOTS = 500;
+    /* Range of the heights above the next opening the bots jump at. */
+    private static final float BOT_MARGIN_MIN = 4;
+    private static final float BOT_MARGIN_RANGE = 60;
 
     /* Background of the PlayState. */
-    private final Texture bg;
+    private final ScrollingLayer bg;
     /* Ground of the PlayState. */
-    private final Texture ground;
-    /* Position one of the Ground. */
-    private final Vector2 groundPos1;
-    /* Position two of the Ground. */
-    private final Vector2 groundPos2;
+    private final ScrollingLayer ground;
+    /* Rules of the game. */
+    private final Simulation sim;
+    /* Generates the course ahead, off the game thread. */
+    private final ChunkGenerator generator;
     /* Bird of the PlayState. */
     private final Bird bird;
     /* Current game Tubes of the PlayState. */
     private final Array<Tube> tubes;
+    /* Records the seed and the jumps of every game. */
+    private final ReplayRecorder recorder;
+    /* Ghosts of the crowd mode, created the first time it is on. */
+    private GhostFlock flock;
+    /* View of the ghosts, or null. */
+    private GhostCrowd crowd;
+    /* Ticks of the jumps of the last run, unpacked for the flock. */
+    private int[] runJumps;
+    /* Whether every game is played on the crowd course with ghosts. */
+    private boolean crowdMode;
 
     /**
      * Defines the initial state of a PlayState.
@@ -45,15 +87,44 @@ public class PlayState extends State {
         cam.setToOrtho(false,
                 FlappyDemo.WIDTH / 2.0f,
                 FlappyDemo.HEIGHT / 2.0f);
-        bg = new Texture("bg.png");
-        ground = new Texture("ground.png");
-        groundPos1 = new Vector2(getLeftSide(), GROUND_Y_OFFSET);
-        groundPos2 = new Vector2(getLeftSide() + ground.getWidth(), GROUND_Y_OFFSET);
-        bird = new Bird(50, 300);
+        bg = new ScrollingLayer(assets.getTexture(AssetCache.BACKGROUND), BG_PARALLAX, 0);
+        ground = new ScrollingLayer(assets.getTexture(AssetCache.GROUND), 1, Simulation.GROUND_Y_OFFSET);
+        sim = new Simulation();
+        generator = new ChunkGenerator();
+        generator.start();
+        sim.setGenerator(generator);
+        bird = new Bird(assets, audio, sim.getBird());
         tubes = new Array<Tube>();
-        for (int i = 1; i <= TUBE_COUNT; i++) {
-            tubes.add(new Tube(i * (TUBE_SPACING + Tube.TUBE_WIDTH)));
+        for (int i = 0; i < sim.getTubeCount(); i++) {
+            tubes.add(new Tube(assets, sim.getTube(i)));
+        }
+        recorder = new ReplayRecorder();
+        recorder.start(sim.getSeed());
+    }
+
+    /**
+     * Switches the crowd mode and starts a new game. Turning it on
+     * fills the crowd with bots, the runs are added as they end. The
+     * crowd is only created the first time, games without it don't
+     * pay for it.
+     * @param crowdMode <code>true</code> to play with the crowd.
+     */
+    public void setCrowdMode (boolean crowdMode) {
+        this.crowdMode = crowdMode;
+        if (crowdMode) {
+            if (flock == null) {
+                flock = new GhostFlock(GHOSTS);
+                crowd = new GhostCrowd(assets, flock);
+                runJumps = new int[64];
+            }
+            flock.clear();
+            long rng = CROWD_SEED;
+            for (int i = 0; i < BOTS; i++) {
+                rng += SplitMix.GOLDEN_GAMMA;
+                flock.addBot(BOT_MARGIN_MIN + SplitMix.nextInt(rng, 1 << 16) * BOT_MARGIN_RANGE / (1 << 16));
+            }
         }
+        reset();
     }
 
     /**
@@ -65,22 +136,55 @@ public class PlayState extends State {
     }
 
     /**
-     * Updates the ground when it is off to the left of the screen.
+     * Games over.
      */
-    private void updateGround () {
-        if (getLeftSide() > groundPos1.x + ground.getWidth()) {
-            groundPos1.add(ground.getWidth() * 2, 0);
+    private void gameOver () {
+        recorder.finish(sim.getTick(), sim.getScore());
+        if (gsm.getLeaderboard() != null) {
+            gsm.getLeaderboard().record(sim.getScore(), sim.getTick(), sim.getSeed());
         }
-        if (getLeftSide() > groundPos2.x + ground.getWidth()) {
-            groundPos2.add(ground.getWidth() * 2, 0);
+        if (crowdMode) {
+            // The run joins the crowd, until it is full.
+            addRun(recorder.getLast());
         }
+        // Restart in place, nothing is loaded or allocated.
+        reset();
     }
 
     /**
-     * Games over.
+     * Adds a finished run to the crowd, as the ticks of its jumps.
+     * @param run the Replay of the run.
      */
-    private void gameOver () {
-        gsm.set(new PlayState(gsm));
+    private void addRun (Replay run) {
+        int count = run.getJumpCount();
+        if (count > runJumps.length) {
+            runJumps = new int[Math.max(runJumps.length * 2, count)];
+        }
+        for (int i = 0; i < count; i++) {
+            runJumps[i] = run.getJump(i);
+        }
+        flock.addReplay(runJumps, count);
+    }
+
+    /**
+     * Starts a new game, reusing the camera, the Bird and the Tubes.
+     */
+    @Override
+    public void reset () {
+        cam.setToOrtho(false,
+                FlappyDemo.WIDTH / 2.0f,
+                FlappyDemo.HEIGHT / 2.0f);
+        if (crowdMode) {
+            sim.reset(CROWD_SEED);
+        } else {
+            sim.reset();
+        }
+        if (crowdMode) {
+            flock.reset();
+            crowd.reset();
+        }
+        recorder.start(sim.getSeed());
+        bird.reset();
     }
 
     /**
@@ -90,6 +194,47 @@ public class PlayState extends State {
     protected void handleInput () {
         if (Gdx.input.justTouched()) {
             bird.jump();
+            recorder.jump(sim.getTick());
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) {
+            saveReplay();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.P) || Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+            pause();
+        }
+    }
+
+    /**
+     * Pauses the game under a PauseState, also when the game loses
+     * the focus, since the Bird can't be saved meanwhile.
+     */
+    @Override
+    public void pause () {
+        PauseState pause = gsm.obtain(PauseState.class);
+        if (pause == null) {
+            pause = new PauseState(gsm);
+        }
+        gsm.push(pause);
+    }
+
+    /**
+     * Saves the last finished game to the replays directory.
+     */
+    private void saveReplay () {
+        Replay replay = recorder.getLast();
+        if (replay == null) {
+            Gdx.app.log(TAG, "No finished game to save.");
+            return;
+        }
+        FileHandle file = Gdx.files.local(REPLAYS + Long.toHexString(replay.getSeed()) + Replay.EXTENSION);
+        OutputStream out = file.write(false);
+        try {
+            replay.write(out);
+            Gdx.app.log(TAG, "Saved replay " + file.path() + ", score " + replay.getScore());
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Can't save replay " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(out);
         }
     }
 
@@ -100,33 +245,18 @@ public class PlayState extends State {
      */
     @Override
     public void update (float dt) {
-        handleInput();
-        updateGround();
-
-        // Bird.
+        // Bird, Tubes and collisions.
+        sim.step(dt);
         bird.update(dt);
+        if (crowdMode) {
+            flock.step(sim, dt);
+            crowd.update(dt);
+        }
 
         // Camera position based on where the Bird is.
-        cam.position.x = bird.getPosition().x + 80; // +80 camera in front of the Bird.
+        cam.position.x = bird.getPosition().x + Simulation.CAMERA_OFFSET;
 
-        // Tubes.
-        for (Tube tube : tubes) {
-            // Repositions a Tube when it is off to the left of the screen.
-            if (getLeftSide() > (tube.getPosTopTube().x + tube.getTopTubeTexture().getWidth())) {
-                tube.reposition(tube.getPosTopTube().x + ((Tube.TUBE_WIDTH + TUBE_SPACING) * TUBE_COUNT));
-            }
-
-            if (tube.collides(bird.getBounds())) {
-                gameOver();
-                // After collision check gsm set method uses the same
-                // iterator to iterate over the same tubes to dispose
-                // textures without finishing the first loop,
-                // so exception is triggered.
-                break;
-            }
-        }
-
-        if (bird.getPosition().y <= ground.getHeight() + GROUND_Y_OFFSET) {
+        if (sim.isOver()) {
             gameOver();
         }
 
@@ -141,26 +271,44 @@ public class PlayState extends State {
      */
     @Override
     public void render (SpriteBatch sb) {
+        // Bird between the last two steps, followed by the camera.
+        Vector3 birdPos = bird.interpolate(gsm.getAlpha());
+        cam.position.x = birdPos.x + Simulation.CAMERA_OFFSET;
+        cam.update();
+        ViewCuller culler = gsm.getCuller();
+        culler.setView(cam);
+
         sb.setProjectionMatrix(cam.combined);
-        sb.begin();
+
+        // The sprites come from the same atlas texture, so the frame
+        // is a draw call for the atlas and one per scrolling layer.
 
         // Background.
-        sb.draw(bg, getLeftSide(), 0);
+        bg.render(sb, getLeftSide(), cam.viewportWidth);
+
+        // Ghosts, behind the Bird.
+        if (crowdMode) {
+            crowd.render(sb, culler, birdPos.x, gsm.getAlpha());
+        }
 
         // Bird.
-        sb.draw(bird.getTexture(), bird.getPosition().x, bird.getPosition().y);
+        sb.draw(bird.getTexture(), birdPos.x, birdPos.y);
 
-        // Tubes.
-        for (Tube tube : tubes) {
-            sb.draw(tube.getTopTubeTexture(), tube.getPosTopTube().x, tube.getPosTopTube().y);
-            sb.draw(tube.getBottomTubeTexture(), tube.getPosBotTube().x, tube.getPosBotTube().y);
+        // Tubes in view, indexed so no iterator is involved.
+        for (int i = 0; i < tubes.size; i++) {
+            Tube tube = tubes.get(i);
+            Vector2 top = tube.getPosTopTube();
+            if (culler.isVisible(top.x, top.y, TubeBody.WIDTH, TubeBody.HEIGHT)) {
+                sb.draw(tube.getTopTubeTexture(), top.x, top.y);
+            }
+            Vector2 bottom = tube.getPosBotTube();
+            if (culler.isVisible(bottom.x, bottom.y, TubeBody.WIDTH, TubeBody.HEIGHT)) {
+                sb.draw(tube.getBottomTubeTexture(), bottom.x, bottom.y);
+            }
         }
 
         // Ground.
-        sb.draw(ground, groundPos1.x, groundPos1.y);
-        sb.draw(ground, groundPos2.x, groundPos2.y);
-
-        sb.end();
+        ground.render(sb, getLeftSide(), cam.viewportWidth);
     }
 
     /**
@@ -168,12 +316,17 @@ public class PlayState extends State {
      */
     @Override
     public void dispose() {
-        bg.dispose();
-        ground.dispose();
+        assets.release(AssetCache.BACKGROUND);
+        assets.release(AssetCache.GROUND);
         bird.dispose();
-        for (Tube tube : tubes) {
-            tube.dispose();
+        if (crowd != null) {
+            crowd.dispose();
+        }
+        for (int i = 0; i < tubes.size; i++) {
+            tubes.get(i).dispose();
         }
-        System.out.println("Play State Disposed.");
+        sim.setGenerator(null);
+        generator.stop();
+        Gdx.app.log(TAG, "Disposed.");
     }
 }
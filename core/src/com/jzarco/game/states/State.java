@@ -3,10 +3,13 @@ package com.jzarco.game.states;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector3;
+import com.jzarco.game.assets.AssetCache;
+import com.jzarco.game.audio.AudioBank;
 
 /**
- * Class to represent a State. A state has a camera, a mouse and a
- * game state manager.
+ * Class to represent a State. A state has a camera, a mouse, a
+ * game state manager, the assets it borrows from and the sounds
+ * it plays.
  *
  * Classes that extend state must implement the method {@link
  * #handleInput()}, to handle input, {@link #update(float)}, to
@@ -20,6 +23,10 @@ public abstract class State {
     protected Vector3 mouse;
     /* Manage game states. */
     protected GameStateManager gsm;
+    /* Shared assets. */
+    protected AssetCache assets;
+    /* Shared sounds. */
+    protected AudioBank audio;
 
     /**
      * Defines the initial state of a state.
@@ -27,30 +34,77 @@ public abstract class State {
      */
     protected State (GameStateManager gsm) {
         this.gsm = gsm;
+        assets = gsm.getAssets();
+        audio = gsm.getAudio();
         cam = new OrthographicCamera();
         mouse = new Vector3();
     }
 
     /**
-     * Handles input.
+     * Handles input, once per frame before the steps.
      */
     protected abstract void handleInput ();
 
     /**
      * Updates.
-     * @param dt the delta time, which is the difference between one
-     *           frame rendered and the next one.
+     * @param dt the delta time, which is always the fixed simulation
+     *           step {@link com.jzarco.game.sim.Simulation#STEP}.
      */
     public abstract void update (float dt);
 
     /**
      * Renders.
+     * Positions can be interpolated between the last two steps with
+     * {@link GameStateManager#getAlpha()}.
      * @param sb the sprite batch, which is a container for everything
-     *           that we need to render to the screen. It needs to open
-     *           and close.
+     *           that we need to render to the screen. It is already
+     *           begun by the {@link GameStateManager}, which ends it
+     *           after the last visible state.
      */
     public abstract void render (SpriteBatch sb);
 
+    /**
+     * Reinitializes the state so it can be used again, reusing its
+     * objects. Does nothing by default.
+     */
+    public void reset () {
+    }
+
+    /**
+     * Pauses the state, when the game loses the focus or goes to the
+     * background. Does nothing by default.
+     */
+    public void pause () {
+    }
+
+    /**
+     * Returns whether the state changes on its own and is rendered
+     * every frame. Otherwise a frame is only rendered on input, and
+     * the time between two frames isn't simulated.
+     * @return <code>true</code> by default.
+     */
+    public boolean isContinuous () {
+        return true;
+    }
+
+    /**
+     * Returns whether the states below this one are still visible,
+     * like under a pause menu or an overlay.
+     * @return <code>false</code> by default.
+     */
+    public boolean isTransparent () {
+        return false;
+    }
+
+    /**
+     * Returns whether the {@link GameStateManager} can keep the state
+     * to reuse it instead of disposing it.
+     * @return <code>false</code> by default.
+     */
+    public boolean isReusable () {
+        return false;
+    }
+
     /**
      * Disposes.
      */
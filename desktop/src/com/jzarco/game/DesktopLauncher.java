@@ -2,13 +2,13 @@ package com.jzarco.game;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;
 import com.jzarco.game.FlappyDemo;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
 public class DesktopLauncher {
 	public static void main (String[] arg) {
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
-		// config.setForegroundFPS(60);
 		// config.setTitle("FlappyDemo");
 
 		/* Screen size. */
@@ -16,6 +16,23 @@ public class DesktopLauncher {
 		/* Screen title. */
 		config.setTitle(FlappyDemo.TITLE);
 
-		new Lwjgl3Application(new FlappyDemo(), config);
+		GameConfig game = new GameConfig();
+		/* Fixed render scale, -Dflappy.renderScale=0.75, adapted by default. */
+		game.renderScale = Float.parseFloat(System.getProperty("flappy.renderScale", String.valueOf(GameConfig.AUTO)));
+
+		/* Frame caps, so the loop doesn't spin uncapped. */
+		config.setForegroundFPS(game.foregroundFps);
+		config.setIdleFPS(game.backgroundFps);
+
+		final FlappyDemo demo = new FlappyDemo(game);
+		/* The game pauses when the window loses the focus too. */
+		config.setWindowListener(new Lwjgl3WindowAdapter() {
+			@Override
+			public void focusLost () {
+				demo.pause();
+			}
+		});
+
+		new Lwjgl3Application(demo, config);
 	}
 }
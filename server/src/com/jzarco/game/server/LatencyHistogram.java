@@ -0,0 +1,141 @@
+package com.jzarco.game.server;
+
+import java.util.Arrays;
+
+/**
+ * Class to represent a LatencyHistogram, which counts durations in
+ * buckets growing by powers of two, each split in 16, so a
+ * percentile is known within about 6% whatever the duration, in a
+ * fixed amount of memory. Not thread-safe.
+ */
+public class LatencyHistogram {
+
+    /* Bits of a bucket below the highest bit of the duration. */
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /* Durations counted per bucket. */
+    private final long[] counts;
+    /* Durations counted. */
+    private long count;
+    /* Longest duration counted. */
+    private long max;
+
+    /**
+     * Defines the initial state of a LatencyHistogram, empty.
+     */
+    public LatencyHistogram () {
+        counts = new long[64 * SUB_BUCKETS];
+    }
+
+    /**
+     * Counts a duration.
+     * @param nanos the duration, in nanoseconds.
+     */
+    public void record (long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[bucketOf(nanos)]++;
+        count++;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Returns the bucket of a duration.
+     * @param nanos the duration, not negative.
+     * @return the index of the bucket.
+     */
+    private static int bucketOf (long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int high = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (high - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (high - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the longest duration of a bucket.
+     * @param bucket the index of the bucket.
+     * @return the upper bound of the bucket, in nanoseconds.
+     */
+    private static long upperBoundOf (int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long low = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return low + (1L << shift) - 1;
+    }
+
+    /**
+     * Adds the durations of another histogram.
+     * @param other the other histogram.
+     */
+    public void add (LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Removes every duration.
+     */
+    public void clear () {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    /**
+     * Returns the duration under which a fraction of the durations are.
+     * @param percentile the fraction, from 0 to 100.
+     * @return the duration, in nanoseconds, or 0 if empty.
+     */
+    public long getPercentile (double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of durations counted.
+     * @return the number of durations counted.
+     */
+    public long getCount () {
+        return count;
+    }
+
+    /**
+     * Returns the longest duration counted.
+     * @return the longest duration, in nanoseconds.
+     */
+    public long getMax () {
+        return max;
+    }
+
+    /**
+     * Returns the 50th, 99th and 99.9th percentiles and the maximum,
+     * in microseconds.
+     * @return the percentiles, formatted.
+     */
+    @Override
+    public String toString () {
+        return String.format("p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                getPercentile(50) / 1e3, getPercentile(99) / 1e3, getPercentile(99.9) / 1e3, max / 1e3);
+    }
+}
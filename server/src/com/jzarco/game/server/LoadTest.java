@@ -0,0 +1,207 @@
+package com.jzarco.game.server;
+
+import com.jzarco.game.replay.Replay;
+import com.jzarco.game.sim.BirdBody;
+import com.jzarco.game.sim.Simulation;
+import com.jzarco.game.sim.SplitMix;
+import com.jzarco.game.sim.TubeBody;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class to represent a LoadTest, which plays many runs with bots,
+ * submits them all at once to a {@link SessionServer} over a
+ * {@link LoopbackTransport}, with one in a hundred claiming a score
+ * one higher, and reports the throughput and the latencies.
+ *
+ * The clients play their runs at the same time, sending the jumps as
+ * they happen at a multiple of the speed of the game, so every tick
+ * of the server has input for every session. At speed 0 every run is
+ * sent at once instead, for the throughput only.
+ *
+ * Arguments: the number of sessions, 20000 by default, the number of
+ * workers, a core each by default, the number of client threads, 2
+ * by default, and the speed, 10 by default.
+ */
+public class LoadTest {
+
+    /* Runs claiming a wrong score, one every CHEAT_EVERY. */
+    private static final int CHEAT_EVERY = 100;
+    /* Longest run of a bot, one minute, then it stops jumping. */
+    private static final int MAX_TICKS = 60 * 60;
+
+    /**
+     * Plays a run with a bot jumping at its own height above the next
+     * opening, like the bots of the crowd mode.
+     * @param sim the Simulation, reused.
+     * @param seed the seed of the course.
+     * @param margin the height above the opening the bot jumps at.
+     * @return the Replay of the run.
+     */
+    private static Replay play (Simulation sim, long seed, float margin) {
+        Replay replay = new Replay();
+        replay.start(seed, Simulation.STEP);
+        sim.reset(seed);
+        while (!sim.isOver()) {
+            BirdBody bird = sim.getBird();
+            float openingY = sim.getNextTube().getBotY() + TubeBody.HEIGHT;
+            if (sim.getTick() < MAX_TICKS && bird.getVelocityY() <= 0 && bird.getY() < openingY + margin) {
+                replay.addJump(sim.getTick());
+                sim.jump();
+            }
+            sim.step(Simulation.STEP);
+        }
+        replay.finish(sim.getTick(), sim.getScore());
+        return replay;
+    }
+
+    /**
+     * Returns the claimed score of a run.
+     * @param runs the runs.
+     * @param i the session of the run.
+     * @return the recorded score, plus one for a cheating run.
+     */
+    private static int claim (Replay[] runs, int i) {
+        return runs[i].getScore() + (i % CHEAT_EVERY == 0 ? 1 : 0);
+    }
+
+    /**
+     * Sends every Message of a share of the runs at once.
+     * @param transport the transport.
+     * @param runs the runs.
+     * @param first the first run of the share.
+     * @param stride the runs between two runs of the share.
+     */
+    private static void burst (LoopbackTransport transport, Replay[] runs, int first, int stride) {
+        for (int i = first; i < runs.length; i += stride) {
+            Replay run = runs[i];
+            transport.send(Message.open(i, run.getSeed()));
+            for (int j = 0; j < run.getJumpCount(); j++) {
+                transport.send(Message.jump(i, run.getJump(j)));
+            }
+            transport.send(Message.end(i, run.getEndTick(), claim(runs, i)));
+        }
+    }
+
+    /**
+     * Plays a share of the runs at the same time, sending the jumps
+     * once their tick has passed, a server tick at a time.
+     * @param transport the transport.
+     * @param runs the runs.
+     * @param first the first run of the share.
+     * @param stride the runs between two runs of the share.
+     * @param speed the game ticks played per server tick.
+     */
+    private static void pace (LoopbackTransport transport, Replay[] runs, int first, int stride, int speed) {
+        int[] next = new int[runs.length];
+        int playing = 0;
+        for (int i = first; i < runs.length; i += stride) {
+            transport.send(Message.open(i, runs[i].getSeed()));
+            playing++;
+        }
+        long deadline = System.nanoTime();
+        for (int tick = speed; playing > 0; tick += speed) {
+            for (int i = first; i < runs.length; i += stride) {
+                Replay run = runs[i];
+                if (next[i] < 0) {
+                    continue;
+                }
+                while (next[i] < run.getJumpCount() && run.getJump(next[i]) < tick) {
+                    transport.send(Message.jump(i, run.getJump(next[i]++)));
+                }
+                if (run.getEndTick() < tick) {
+                    transport.send(Message.end(i, run.getEndTick(), claim(runs, i)));
+                    next[i] = -1;
+                    playing--;
+                }
+            }
+            deadline += SessionServer.TICK_NANOS;
+            long wait = deadline - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    /**
+     * Runs the load test.
+     * @param args the number of sessions, workers and client threads.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public static void main (String[] args) throws InterruptedException {
+        final int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        final int speed = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        // Runs of the clients, played before the clock starts.
+        final Replay[] runs = new Replay[sessions];
+        Simulation sim = new Simulation();
+        long playedTicks = 0;
+        for (int i = 0; i < sessions; i++) {
+            long seed = SplitMix.mix(i);
+            runs[i] = play(sim, seed, 4 + SplitMix.nextInt(seed, 60));
+            playedTicks += runs[i].getEndTick();
+        }
+        System.out.println(String.format("%d runs played, %d ticks, mean %.0f ticks a run",
+                sessions, playedTicks, playedTicks / (double) sessions));
+
+        final LoopbackTransport transport = new LoopbackTransport();
+        SessionServer server = new SessionServer(transport, workers);
+        server.start();
+
+        long start = System.nanoTime();
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            final int first = c;
+            final int stride = clients;
+            threads[c] = new Thread(new Runnable() {
+                @Override
+                public void run () {
+                    if (speed == 0) {
+                        burst(transport, runs, first, stride);
+                    } else {
+                        pace(transport, runs, first, stride, speed);
+                    }
+                }
+            }, "client-" + c);
+            threads[c].start();
+        }
+
+        int received = 0;
+        int wrong = 0;
+        while (received < sessions) {
+            Verdict verdict = transport.poll(10, TimeUnit.SECONDS);
+            if (verdict == null) {
+                System.out.println("Timed out waiting for the verdicts.");
+                break;
+            }
+            received++;
+            boolean cheated = verdict.sessionId % CHEAT_EVERY == 0;
+            if (verdict.valid == cheated) {
+                wrong++;
+                System.out.println("Wrong verdict: " + verdict);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        server.stop();
+
+        LatencyHistogram tickTimes = new LatencyHistogram();
+        LatencyHistogram messageLatencies = new LatencyHistogram();
+        server.snapshot(tickTimes, messageLatencies);
+        double seconds = nanos / 1e9;
+        System.out.println(String.format("%d verdicts, %d rejected, %d wrong, %d dropped messages in %.3f s",
+                received, server.getRejected(), wrong, server.getDropped(), seconds));
+        System.out.println(String.format("%d workers, %.0f sessions/s per worker, peak %d open sessions per worker",
+                workers, received / seconds / workers, server.getPeakSessionsPerWorker()));
+        System.out.println(String.format("%.0f ticks simulated/s, %.0fx real time",
+                server.getSimulatedTicks() / seconds, server.getSimulatedTicks() * Simulation.STEP / seconds));
+        System.out.println("Busy ticks (" + tickTimes.getCount() + "): " + tickTimes);
+        System.out.println("Messages (" + messageLatencies.getCount() + "): " + messageLatencies);
+        System.exit(wrong == 0 && received == sessions ? 0 : 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.jzarco.game.server;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class to represent a LoopbackTransport, clients and server in the
+ * same process. A Message is handed to the server on the thread of
+ * the client, and the Verdicts wait in a queue for the clients.
+ */
+public class LoopbackTransport implements Transport {
+
+    /* Where the Messages go. */
+    private volatile Receiver receiver;
+    /* Verdicts not taken by the clients yet. */
+    private final BlockingQueue<Verdict> verdicts;
+
+    /**
+     * Defines the initial state of a LoopbackTransport.
+     */
+    public LoopbackTransport () {
+        verdicts = new LinkedBlockingQueue<Verdict>();
+    }
+
+    @Override
+    public void setReceiver (Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void reply (Verdict verdict) {
+        verdicts.add(verdict);
+    }
+
+    /**
+     * Sends a Message from a client.
+     * @param message the Message.
+     * @throws IllegalStateException if no server is listening.
+     */
+    public void send (Message message) {
+        Receiver receiver = this.receiver;
+        if (receiver == null) {
+            throw new IllegalStateException("No server is listening.");
+        }
+        receiver.receive(message);
+    }
+
+    /**
+     * Takes the next Verdict, waiting for one if needed.
+     * @param timeout how long to wait.
+     * @param unit the unit of the timeout.
+     * @return the Verdict, or <code>null</code> if none came in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Verdict poll (long timeout, TimeUnit unit) throws InterruptedException {
+        return verdicts.poll(timeout, unit);
+    }
+}
@@ -0,0 +1,72 @@
+package com.jzarco.game.server;
+
+/**
+ * Class to represent a Message, an input event sent by the client of
+ * a session. A session is opened with the seed of its course, gets
+ * the ticks of its jumps and is ended with the tick and the score the
+ * client claims, in that order.
+ */
+public final class Message {
+
+    /* Types of Messages. */
+    public static final int OPEN = 0;
+    public static final int JUMP = 1;
+    public static final int END = 2;
+
+    /* Type of the Message. */
+    public final int type;
+    /* Session the Message belongs to. */
+    public final long sessionId;
+    /* Tick of the jump or of the end, 0 for an open. */
+    public final int tick;
+    /* Seed of the course for an open, claimed score for an end. */
+    public final long value;
+    /* Time the Message was sent, from System.nanoTime(). */
+    public final long sentNanos;
+
+    /**
+     * Defines the initial state of a Message, sent now.
+     * @param type the type of the Message.
+     * @param sessionId the session.
+     * @param tick the tick of the event.
+     * @param value the seed or the score.
+     */
+    private Message (int type, long sessionId, int tick, long value) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.tick = tick;
+        this.value = value;
+        sentNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns a Message opening a session.
+     * @param sessionId the session.
+     * @param seed the seed of the course.
+     * @return the Message.
+     */
+    public static Message open (long sessionId, long seed) {
+        return new Message(OPEN, sessionId, 0, seed);
+    }
+
+    /**
+     * Returns a Message of a jump.
+     * @param sessionId the session.
+     * @param tick the tick of the jump.
+     * @return the Message.
+     */
+    public static Message jump (long sessionId, int tick) {
+        return new Message(JUMP, sessionId, tick, 0);
+    }
+
+    /**
+     * Returns a Message ending a session.
+     * @param sessionId the session.
+     * @param tick the tick the game ended at.
+     * @param score the score claimed.
+     * @return the Message.
+     */
+    public static Message end (long sessionId, int tick, int score) {
+        return new Message(END, sessionId, tick, score);
+    }
+}
@@ -0,0 +1,94 @@
+package com.jzarco.game.server;
+
+import com.jzarco.game.sim.Simulation;
+
+/**
+ * Class to represent a Session, the run of a client re-simulated on
+ * its own course with the rules the game plays with, so it ends at
+ * the same tick with the same score bit for bit, like a
+ * {@link com.jzarco.game.replay.ReplayPlayer} plays a Replay.
+ *
+ * The jumps of a session come in order, so the Simulation advances
+ * up to the tick of a jump as soon as it is received and nothing is
+ * buffered. A jump before the tick already simulated can't be played
+ * as reported, so it makes the run invalid. A Session is only used
+ * by the worker owning it.
+ */
+final class Session {
+
+    /* Session id. */
+    private final long id;
+    /* Rules of the game. */
+    private final Simulation sim;
+    /* Time of the last Message, from System.nanoTime(). */
+    private long lastMessageNanos;
+    /* Whether a jump went back in time. */
+    private boolean outOfOrder;
+
+    /**
+     * Defines the initial state of a Session.
+     * @param id the session id.
+     * @param seed the seed of the course.
+     * @param now the time it is opened, from System.nanoTime().
+     */
+    Session (long id, long seed, long now) {
+        this.id = id;
+        sim = new Simulation(Simulation.TUBE_COUNT, seed);
+        lastMessageNanos = now;
+    }
+
+    /**
+     * Jumps at a tick, or rejects the run if the tick is already past.
+     * @param tick the tick of the jump.
+     * @param now the time it is received.
+     */
+    void jump (int tick, long now) {
+        lastMessageNanos = now;
+        if (tick < sim.getTick()) {
+            outOfOrder = true;
+            return;
+        }
+        advance(tick);
+        if (!sim.isOver()) {
+            sim.jump();
+        }
+    }
+
+    /**
+     * Ends the run and checks the claim of the client.
+     * @param tick the tick the client says the game ended at.
+     * @param score the score the client claims.
+     * @return the Verdict.
+     */
+    Verdict end (int tick, int score) {
+        advance(tick);
+        boolean valid = !outOfOrder && sim.isOver() && sim.getTick() == tick && sim.getScore() == score;
+        return new Verdict(id, valid, sim.getScore(), sim.getTick(), score);
+    }
+
+    /**
+     * Steps the game up to a tick, or until it is over.
+     * @param tick the tick.
+     */
+    private void advance (int tick) {
+        while (!sim.isOver() && sim.getTick() < tick) {
+            sim.step(Simulation.STEP);
+        }
+    }
+
+    /**
+     * Returns the number of steps simulated.
+     * @return the number of steps simulated.
+     */
+    int getTick () {
+        return sim.getTick();
+    }
+
+    /**
+     * Returns the time of the last Message.
+     * @return the time, from System.nanoTime().
+     */
+    long getLastMessageNanos () {
+        return lastMessageNanos;
+    }
+}
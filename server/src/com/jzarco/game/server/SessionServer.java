@@ -0,0 +1,322 @@
+package com.jzarco.game.server;
+
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class to represent a SessionServer, which hosts many independent
+ * game {@link Session}s and validates every run they submit by
+ * re-simulating it.
+ *
+ * Sessions are sharded by id over a small pool of workers, a thread
+ * per core. A worker owns its sessions, so a Session is never
+ * touched by two threads and needs no lock. Every tick, 60 per
+ * second, a worker drains the Messages received for its sessions
+ * and advances them, then sleeps until the next tick, or starts it
+ * right away if it is behind.
+ *
+ * Every worker records the duration of its busy ticks and the time
+ * from the sending of a Message to its handling.
+ */
+public class SessionServer implements Transport.Receiver {
+
+    /* Duration of a tick. */
+    public static final long TICK_NANOS = 1000000000L / 60;
+    /* Time without a Message after which a session is dropped. */
+    public static final long SESSION_TIMEOUT_NANOS = 30000000000L;
+
+    /* Link to the clients. */
+    private final Transport transport;
+    /* Workers, each owning a shard of the sessions. */
+    private final Worker[] workers;
+    /* Threads of the workers. */
+    private final Thread[] threads;
+    /* Whether the workers keep ticking. */
+    private volatile boolean running;
+
+    /**
+     * Defines the initial state of a SessionServer, a worker per core.
+     * @param transport the link to the clients.
+     */
+    public SessionServer (Transport transport) {
+        this(transport, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Defines the initial state of a SessionServer.
+     * @param transport the link to the clients.
+     * @param workerCount the number of workers.
+     */
+    public SessionServer (Transport transport, int workerCount) {
+        this.transport = transport;
+        workers = new Worker[workerCount];
+        threads = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker();
+            threads[i] = new Thread(workers[i], "session-worker-" + i);
+            threads[i].setDaemon(true);
+        }
+    }
+
+    /**
+     * Starts the workers and listens to the transport.
+     */
+    public void start () {
+        running = true;
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        transport.setReceiver(this);
+    }
+
+    /**
+     * Stops the workers, the Messages not handled yet are lost.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void stop () throws InterruptedException {
+        transport.setReceiver(null);
+        running = false;
+        for (Thread thread : threads) {
+            LockSupport.unpark(thread);
+            thread.join();
+        }
+    }
+
+    /**
+     * Hands a Message to the worker owning its session.
+     * @param message the Message.
+     */
+    @Override
+    public void receive (Message message) {
+        workers[(int) Math.floorMod(message.sessionId, (long) workers.length)].inbox.add(message);
+    }
+
+    /**
+     * Returns the number of workers.
+     * @return the number of workers.
+     */
+    public int getWorkerCount () {
+        return workers.length;
+    }
+
+    /**
+     * Returns the number of sessions open.
+     * @return the number of sessions open.
+     */
+    public int getOpenSessions () {
+        int open = 0;
+        for (Worker worker : workers) {
+            open += worker.openSessions;
+        }
+        return open;
+    }
+
+    /**
+     * Returns the largest number of sessions a worker had open at once.
+     * @return the peak of sessions per worker.
+     */
+    public int getPeakSessionsPerWorker () {
+        int peak = 0;
+        for (Worker worker : workers) {
+            peak = Math.max(peak, worker.peakSessions);
+        }
+        return peak;
+    }
+
+    /**
+     * Returns the number of runs validated, valid or not.
+     * @return the number of Verdicts.
+     */
+    public long getVerdicts () {
+        long verdicts = 0;
+        for (Worker worker : workers) {
+            verdicts += worker.verdicts;
+        }
+        return verdicts;
+    }
+
+    /**
+     * Returns the number of runs rejected.
+     * @return the number of invalid Verdicts.
+     */
+    public long getRejected () {
+        long rejected = 0;
+        for (Worker worker : workers) {
+            rejected += worker.rejected;
+        }
+        return rejected;
+    }
+
+    /**
+     * Returns the number of game steps simulated by the ended sessions.
+     * @return the number of ticks simulated.
+     */
+    public long getSimulatedTicks () {
+        long ticks = 0;
+        for (Worker worker : workers) {
+            ticks += worker.simulatedTicks;
+        }
+        return ticks;
+    }
+
+    /**
+     * Returns the number of Messages dropped, for a session unknown,
+     * already open or timed out.
+     * @return the number of Messages dropped.
+     */
+    public long getDropped () {
+        long dropped = 0;
+        for (Worker worker : workers) {
+            dropped += worker.dropped;
+        }
+        return dropped;
+    }
+
+    /**
+     * Adds the durations recorded by every worker so far.
+     * @param tickTimes the histogram of the busy tick durations.
+     * @param messageLatencies the histogram of the Message latencies.
+     */
+    public void snapshot (LatencyHistogram tickTimes, LatencyHistogram messageLatencies) {
+        for (Worker worker : workers) {
+            synchronized (worker) {
+                tickTimes.add(worker.tickTimes);
+                messageLatencies.add(worker.messageLatencies);
+            }
+        }
+    }
+
+    /**
+     * Class to represent a Worker, which ticks a shard of the sessions.
+     * The counters are only written by its thread.
+     */
+    private final class Worker implements Runnable {
+
+        /* Messages received for the sessions of the worker. */
+        private final ConcurrentLinkedQueue<Message> inbox;
+        /* Sessions of the worker, by id. */
+        private final LongMap<Session> sessions;
+        /* Durations of the busy ticks, guarded by the worker. */
+        private final LatencyHistogram tickTimes;
+        /* Times from sending to handling, guarded by the worker. */
+        private final LatencyHistogram messageLatencies;
+        /* Time of the next look for timed out sessions. */
+        private long nextExpiry;
+        /* Counters. */
+        private volatile int openSessions;
+        private volatile int peakSessions;
+        private volatile long verdicts;
+        private volatile long rejected;
+        private volatile long simulatedTicks;
+        private volatile long dropped;
+
+        Worker () {
+            inbox = new ConcurrentLinkedQueue<Message>();
+            sessions = new LongMap<Session>();
+            tickTimes = new LatencyHistogram();
+            messageLatencies = new LatencyHistogram();
+        }
+
+        @Override
+        public void run () {
+            long next = System.nanoTime();
+            nextExpiry = next + SESSION_TIMEOUT_NANOS;
+            while (running) {
+                tick();
+                next += TICK_NANOS;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    // Behind, start the next tick now without catching up.
+                    next = System.nanoTime();
+                }
+            }
+        }
+
+        /**
+         * Handles the Messages received since the last tick.
+         */
+        private synchronized void tick () {
+            long start = System.nanoTime();
+            boolean busy = false;
+            Message message;
+            while ((message = inbox.poll()) != null) {
+                handle(message, start);
+                messageLatencies.record(System.nanoTime() - message.sentNanos);
+                busy = true;
+            }
+            if (start >= nextExpiry) {
+                expire(start);
+                nextExpiry = start + SESSION_TIMEOUT_NANOS / 4;
+            }
+            openSessions = sessions.size;
+            if (busy) {
+                tickTimes.record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Handles a Message.
+         * @param message the Message.
+         * @param now the time of the tick.
+         */
+        private void handle (Message message, long now) {
+            long id = message.sessionId;
+            switch (message.type) {
+                case Message.OPEN:
+                    if (sessions.containsKey(id)) {
+                        dropped++;
+                    } else {
+                        sessions.put(id, new Session(id, message.value, now));
+                        // Sampled on every open, a burst can open and end its
+                        // sessions within a single tick.
+                        if (sessions.size > peakSessions) {
+                            peakSessions = sessions.size;
+                        }
+                    }
+                    break;
+                case Message.JUMP:
+                    Session session = sessions.get(id);
+                    if (session == null) {
+                        dropped++;
+                    } else {
+                        session.jump(message.tick, now);
+                    }
+                    break;
+                case Message.END:
+                    Session ended = sessions.remove(id);
+                    if (ended == null) {
+                        dropped++;
+                        break;
+                    }
+                    Verdict verdict = ended.end(message.tick, (int) message.value);
+                    verdicts++;
+                    if (!verdict.valid) {
+                        rejected++;
+                    }
+                    simulatedTicks += verdict.tick;
+                    transport.reply(verdict);
+                    break;
+                default:
+                    dropped++;
+            }
+        }
+
+        /**
+         * Drops the sessions without a Message for too long.
+         * @param now the time of the tick.
+         */
+        private void expire (long now) {
+            Iterator<Session> iterator = sessions.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().getLastMessageNanos() > SESSION_TIMEOUT_NANOS) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.jzarco.game.server;
+
+/**
+ * Interface to represent a Transport, the server side of the link
+ * to the clients. The Messages of a session must be received in the
+ * order they were sent.
+ */
+public interface Transport {
+
+    /**
+     * Sets where the received Messages go. Messages can be received
+     * from several threads at once.
+     * @param receiver the receiver.
+     */
+    void setReceiver (Receiver receiver);
+
+    /**
+     * Sends a Verdict to the client of its session.
+     * @param verdict the Verdict.
+     */
+    void reply (Verdict verdict);
+
+    /**
+     * Interface to represent the receiver of the Messages.
+     */
+    interface Receiver {
+
+        /**
+         * Receives a Message.
+         * @param message the Message.
+         */
+        void receive (Message message);
+    }
+}
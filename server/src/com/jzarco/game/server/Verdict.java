@@ -0,0 +1,40 @@
+package com.jzarco.game.server;
+
+/**
+ * Class to represent a Verdict, the result of re-simulating the run
+ * of a session, sent back to its client.
+ */
+public final class Verdict {
+
+    /* Session of the run. */
+    public final long sessionId;
+    /* Whether the game ended at the claimed tick with the claimed score. */
+    public final boolean valid;
+    /* Score and tick the server simulated. */
+    public final int score;
+    public final int tick;
+    /* Score the client claimed. */
+    public final int claimedScore;
+
+    /**
+     * Defines the initial state of a Verdict.
+     * @param sessionId the session of the run.
+     * @param valid whether the run is valid.
+     * @param score the score simulated.
+     * @param tick the tick simulated.
+     * @param claimedScore the score claimed.
+     */
+    Verdict (long sessionId, boolean valid, int score, int tick, int claimedScore) {
+        this.sessionId = sessionId;
+        this.valid = valid;
+        this.score = score;
+        this.tick = tick;
+        this.claimedScore = claimedScore;
+    }
+
+    @Override
+    public String toString () {
+        return String.format("session %d: score %d at tick %d, claimed %d, %s",
+                sessionId, score, tick, claimedScore, valid ? "valid" : "REJECTED");
+    }
+}